@@ -0,0 +1,577 @@
+package edu.sdsu.cs.datastructures;
+
+import java.util.ArrayDeque;
+import java.util.ConcurrentModificationException;
+import java.util.Deque;
+import java.util.Iterator;
+import java.util.NoSuchElementException;
+
+/**
+ * A self-balancing binary search tree.
+ * <p>Behaves like BinarySearchTree, but every insertion and deletion
+ * rebalances the path back to the root with AVL rotations, so the heights
+ * of any node's two subtrees never differ by more than one. The tree stays
+ * logarithmically deep whatever order the keys arrive in, including the
+ * sorted order that turns an unbalanced tree into a linked list.
+ * </p>
+ * <p>Each entry also records the size of its subtree, kept up to date by
+ * the same rebalancing, so rank and select, along with the floor, ceiling
+ * and range operations, run in O(log n) for any insertion order.
+ * </p>
+ * <p>It is a separate class rather than a mode of BinarySearchTree because
+ * that tree's entries carry parent links, which every rotation would have
+ * to repair. Here the rebalancing runs on the way back up a recursive
+ * insert or remove, so entries need only their two child links.
+ * </p>
+ *
+ * @param <K> key type, must support comparison with like-type objects
+ * @param <V> value type
+ */
+public class AVLTree<K extends Comparable<K>, V> implements NavigableMapADT<K, V> {
+
+    private Entry<K, V> root;
+    private int elements = 0;
+    private int modCount = 0;
+
+    // Results handed back up the recursive insert and remove.
+    private V replaced;
+    private boolean removed;
+
+    static final class Entry<K, V> {
+        final K key;
+        V value;
+        Entry<K, V> left;
+        Entry<K, V> right;
+        int height = 1;
+        int size = 1;
+
+        Entry(K key, V value) {
+            this.key = key;
+            this.value = value;
+        }
+    }
+
+    /**
+     * Returns true if the map has an object for the corresponding key.
+     *
+     * @param key object to search for
+     * @return true if within map, false otherwise
+     */
+    public boolean contains(K key) {
+        return find(key) != null;
+    }
+
+    /**
+     * Adds the given key/value pair to the map.
+     *
+     * @param key   Key to add to the map
+     * @param value Corresponding value to associate with the key
+     * @return the previous value associated with this key or null if new
+     */
+    public V add(K key, V value) {
+        int before = elements;
+        root = insert(root, key, value);
+        if (elements == before) {
+            V old = replaced;
+            replaced = null;
+            return old;
+        }
+        modCount++;
+        return null;
+    }
+
+    /**
+     * Removes the key/value pair identified by the key parameter from the map.
+     *
+     * @param key item to remove
+     * @return true if removed, false if not found or unable to remove
+     */
+    public boolean delete(K key) {
+        removed = false;
+        root = remove(root, key);
+        if (!removed) {
+            return false;
+        }
+        elements--;
+        modCount++;
+        return true;
+    }
+
+    /**
+     * Returns the value associated with the parameter key.
+     *
+     * @param key key to lookup in the map
+     * @return Value associated with key or null if not found
+     */
+    public V getValue(K key) {
+        Entry<K, V> entry = find(key);
+        return entry == null ? null : entry.value;
+    }
+
+    /**
+     * Returns the first key found with the parameter value.
+     *
+     * @param value value to locate
+     * @return key of first item found with the matching value
+     */
+    public K getKey(V value) {
+        for (InOrder walk = new InOrder(); walk.hasNext(); ) {
+            Entry<K, V> entry = walk.next();
+            if (entry.value.equals(value)) {
+                return entry.key;
+            }
+        }
+        return null;
+    }
+
+    /**
+     * Identifies the maxSize of the map.
+     *
+     * @return Number of entries stored in the map.
+     */
+    public int size() {
+        return elements;
+    }
+
+    /**
+     * Indicates if the map contains nothing.
+     * @return true if the map is empty, as the method cryptically indicates.
+     */
+    public boolean isEmpty() {
+        return elements == 0;
+    }
+
+    /**
+     * Resets the map to an empty state with no entries.
+     */
+    public void clear() {
+        root = null;
+        elements = 0;
+        modCount++;
+    }
+
+    /**
+     * Provides a key iterator.
+     * @return Iterator over the keys in sorted order
+     */
+    public Iterator<K> keys() {
+        return new Ranges().keys(null, null);
+    }
+
+    /**
+     * Provides a value iterator. The values arrive corresponding to their
+     * keys in the key order.
+     * @return Iterator over the values.
+     */
+    public Iterator<V> values() {
+        return new Ranges().values(null, null);
+    }
+
+    /**
+     * Returns the largest key less than or equal to the parameter key.
+     *
+     * @param key key to search around
+     * @return the greatest key not above key, or null if there is none
+     */
+    public K floorKey(K key) {
+        Entry<K, V> node = root;
+        K best = null;
+        while (node != null) {
+            int cmp = key.compareTo(node.key);
+            if (cmp == 0) {
+                return node.key;
+            }
+            if (cmp > 0) {
+                best = node.key;
+                node = node.right;
+            }
+            else {
+                node = node.left;
+            }
+        }
+        return best;
+    }
+
+    /**
+     * Returns the smallest key greater than or equal to the parameter key.
+     *
+     * @param key key to search around
+     * @return the least key not below key, or null if there is none
+     */
+    public K ceilingKey(K key) {
+        Entry<K, V> node = root;
+        K best = null;
+        while (node != null) {
+            int cmp = key.compareTo(node.key);
+            if (cmp == 0) {
+                return node.key;
+            }
+            if (cmp < 0) {
+                best = node.key;
+                node = node.left;
+            }
+            else {
+                node = node.right;
+            }
+        }
+        return best;
+    }
+
+    /**
+     * Returns the smallest key in the map.
+     *
+     * @return the lowest key, or null if the map is empty
+     */
+    public K firstKey() {
+        Entry<K, V> node = root;
+        if (node == null) {
+            return null;
+        }
+        while (node.left != null) {
+            node = node.left;
+        }
+        return node.key;
+    }
+
+    /**
+     * Returns the largest key in the map.
+     *
+     * @return the highest key, or null if the map is empty
+     */
+    public K lastKey() {
+        Entry<K, V> node = root;
+        if (node == null) {
+            return null;
+        }
+        while (node.right != null) {
+            node = node.right;
+        }
+        return node.key;
+    }
+
+    /**
+     * Counts the keys strictly less than the parameter key, which need not
+     * be in the map, using the subtree sizes on the way down.
+     *
+     * @param key key to rank
+     * @return number of keys below key
+     */
+    public int rank(K key) {
+        Entry<K, V> node = root;
+        int below = 0;
+        while (node != null) {
+            int cmp = key.compareTo(node.key);
+            if (cmp == 0) {
+                return below + size(node.left);
+            }
+            if (cmp < 0) {
+                node = node.left;
+            }
+            else {
+                below += 1 + size(node.left);
+                node = node.right;
+            }
+        }
+        return below;
+    }
+
+    /**
+     * Returns the key at the given position in sorted order, so that
+     * select(rank(k)) is k for every key k in the map.
+     *
+     * @param index zero-based position among the sorted keys
+     * @return the key with exactly index keys below it
+     * @throws IndexOutOfBoundsException if index is negative or not less
+     *                                   than size()
+     */
+    public K select(int index) {
+        if (index < 0 || index >= elements) {
+            throw new IndexOutOfBoundsException("Index: " + index + ", Size: " + elements);
+        }
+        Entry<K, V> node = root;
+        while (true) {
+            int left = size(node.left);
+            if (index < left) {
+                node = node.left;
+            }
+            else if (index == left) {
+                return node.key;
+            }
+            else {
+                index -= left + 1;
+                node = node.right;
+            }
+        }
+    }
+
+    /**
+     * Provides a live view of the keys from fromKey, inclusive, up to
+     * toKey, exclusive. Reads and writes pass through to this tree, and
+     * iterating the view seeks to fromKey and stops at toKey.
+     *
+     * @param fromKey lowest key in the view
+     * @param toKey   key just past the view
+     * @return the bounded view
+     */
+    public NavigableMapADT<K, V> subMap(K fromKey, K toKey) {
+        if (fromKey.compareTo(toKey) > 0) {
+            throw new IllegalArgumentException("fromKey > toKey");
+        }
+        return new RangeView<>(this, new Ranges(), fromKey, toKey);
+    }
+
+    /**
+     * Provides a live view of the keys strictly below toKey.
+     *
+     * @param toKey key just past the view
+     * @return the bounded view
+     */
+    public NavigableMapADT<K, V> headMap(K toKey) {
+        return new RangeView<>(this, new Ranges(), null, toKey);
+    }
+
+    /**
+     * Provides a live view of the keys from fromKey upward.
+     *
+     * @param fromKey lowest key in the view
+     * @return the bounded view
+     */
+    public NavigableMapADT<K, V> tailMap(K fromKey) {
+        return new RangeView<>(this, new Ranges(), fromKey, null);
+    }
+
+    /**
+     * Height of the tree, zero when empty.
+     *
+     * @return number of nodes on the longest root-to-leaf path
+     */
+    public int height() {
+        return height(root);
+    }
+
+    private final class InOrder implements Iterator<Entry<K, V>> {
+        final Deque<Entry<K, V>> path = new ArrayDeque<>();
+        final int expectedModCount = modCount;
+        final K fence;
+
+        InOrder() {
+            this(null, null);
+        }
+
+        /**
+         * Walks from the first key at or above from up to, but not
+         * including, fence. A null bound leaves that side open.
+         */
+        InOrder(K from, K fence) {
+            this.fence = fence;
+            Entry<K, V> node = root;
+            while (node != null) {
+                if (from == null || node.key.compareTo(from) >= 0) {
+                    path.push(node);
+                    node = node.left;
+                }
+                else {
+                    node = node.right;
+                }
+            }
+            stopAtFence();
+        }
+
+        private void stopAtFence() {
+            if (fence != null && !path.isEmpty() && path.peek().key.compareTo(fence) >= 0) {
+                path.clear();
+            }
+        }
+
+        private void descend(Entry<K, V> node) {
+            for (; node != null; node = node.left) {
+                path.push(node);
+            }
+        }
+
+        @Override
+        public boolean hasNext() {
+            return !path.isEmpty();
+        }
+
+        @Override
+        public Entry<K, V> next() {
+            if (modCount != expectedModCount) {
+                throw new ConcurrentModificationException();
+            }
+            if (path.isEmpty()) {
+                throw new NoSuchElementException();
+            }
+            Entry<K, V> node = path.pop();
+            descend(node.right);
+            stopAtFence();
+            return node;
+        }
+    }
+
+    /**
+     * Hands RangeView its seek-from, stop-at-fence walks over this tree.
+     */
+    private final class Ranges implements RangeView.Walks<K, V> {
+        @Override
+        public Iterator<K> keys(K from, K fence) {
+            InOrder walk = new InOrder(from, fence);
+            return new Iterator<K>() {
+                @Override
+                public boolean hasNext() {
+                    return walk.hasNext();
+                }
+
+                @Override
+                public K next() {
+                    return walk.next().key;
+                }
+            };
+        }
+
+        @Override
+        public Iterator<V> values(K from, K fence) {
+            InOrder walk = new InOrder(from, fence);
+            return new Iterator<V>() {
+                @Override
+                public boolean hasNext() {
+                    return walk.hasNext();
+                }
+
+                @Override
+                public V next() {
+                    return walk.next().value;
+                }
+            };
+        }
+    }
+
+    private Entry<K, V> find(K key) {
+        Entry<K, V> node = root;
+        while (node != null) {
+            int cmp = key.compareTo(node.key);
+            if (cmp == 0) {
+                return node;
+            }
+            node = cmp < 0 ? node.left : node.right;
+        }
+        return null;
+    }
+
+    /**
+     * Inserts the key below node, or replaces its value if present, in one
+     * descent. A new entry bumps the element count; a replacement leaves
+     * the old value in replaced and the path unchanged.
+     */
+    private Entry<K, V> insert(Entry<K, V> node, K key, V value) {
+        if (node == null) {
+            elements++;
+            return new Entry<>(key, value);
+        }
+        int cmp = key.compareTo(node.key);
+        if (cmp == 0) {
+            replaced = node.value;
+            node.value = value;
+            return node;
+        }
+        int before = elements;
+        if (cmp < 0) {
+            node.left = insert(node.left, key, value);
+        }
+        else {
+            node.right = insert(node.right, key, value);
+        }
+        return elements == before ? node : balance(node);
+    }
+
+    /**
+     * Removes the key from below node in one descent, setting removed if it
+     * was found. A missing key leaves the path untouched.
+     */
+    private Entry<K, V> remove(Entry<K, V> node, K key) {
+        if (node == null) {
+            return null;
+        }
+        int cmp = key.compareTo(node.key);
+        if (cmp < 0) {
+            node.left = remove(node.left, key);
+        }
+        else if (cmp > 0) {
+            node.right = remove(node.right, key);
+        }
+        else {
+            removed = true;
+            if (node.left == null) {
+                return node.right;
+            }
+            if (node.right == null) {
+                return node.left;
+            }
+            Entry<K, V> successor = node.right;
+            while (successor.left != null) {
+                successor = successor.left;
+            }
+            successor.right = removeMin(node.right);
+            successor.left = node.left;
+            node = successor;
+        }
+        return removed ? balance(node) : node;
+    }
+
+    private Entry<K, V> removeMin(Entry<K, V> node) {
+        if (node.left == null) {
+            return node.right;
+        }
+        node.left = removeMin(node.left);
+        return balance(node);
+    }
+
+    private Entry<K, V> balance(Entry<K, V> node) {
+        update(node);
+        int skew = height(node.left) - height(node.right);
+        if (skew > 1) {
+            if (height(node.left.left) < height(node.left.right)) {
+                node.left = rotateLeft(node.left);
+            }
+            return rotateRight(node);
+        }
+        if (skew < -1) {
+            if (height(node.right.right) < height(node.right.left)) {
+                node.right = rotateRight(node.right);
+            }
+            return rotateLeft(node);
+        }
+        return node;
+    }
+
+    private Entry<K, V> rotateRight(Entry<K, V> node) {
+        Entry<K, V> pivot = node.left;
+        node.left = pivot.right;
+        pivot.right = node;
+        update(node);
+        update(pivot);
+        return pivot;
+    }
+
+    private Entry<K, V> rotateLeft(Entry<K, V> node) {
+        Entry<K, V> pivot = node.right;
+        node.right = pivot.left;
+        pivot.left = node;
+        update(node);
+        update(pivot);
+        return pivot;
+    }
+
+    private void update(Entry<K, V> node) {
+        node.height = 1 + Math.max(height(node.left), height(node.right));
+        node.size = 1 + size(node.left) + size(node.right);
+    }
+
+    private static int height(Entry<?, ?> node) {
+        return node == null ? 0 : node.height;
+    }
+
+    private static int size(Entry<?, ?> node) {
+        return node == null ? 0 : node.size;
+    }
+}
@@ -0,0 +1,456 @@
+package edu.sdsu.cs.datastructures;
+
+import java.util.AbstractMap;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.ConcurrentModificationException;
+import java.util.Iterator;
+import java.util.List;
+import java.util.Map;
+import java.util.NoSuchElementException;
+
+/**
+ * A map that changes its representation as it grows and as it is used.
+ * <p>Small maps are two sorted arrays searched by binary search, which is
+ * far more compact than a HashTable's buckets or a tree's nodes for a
+ * handful of entries. Once the map outgrows the array limit it moves its
+ * entries into either a HashTable or a BPlusTree, depending on how it has
+ * been used: a caller that has recently iterated keys() or values() gets
+ * the tree, which hands them back in key order cheaply, and one that only
+ * looks up, adds and deletes gets the hash table.
+ * </p>
+ * <p>The choice is revisited as the workload changes. Iterating the hash
+ * table moves it to the tree, since the entries must be sorted for the
+ * scan anyway. The tree moves back to the hash table after a write once
+ * more than eight operations per entry have passed without an ordered
+ * scan, and a large map shrinks back to the arrays once it falls to half
+ * the array limit. Each move copies every entry, but it only happens after
+ * work proportional to the size of the map, so its cost is amortized over
+ * the operations that triggered it. Either way keys() and values() always
+ * arrive in key order, whichever representation is current.
+ * </p>
+ *
+ * @param <K> key type, must support comparison with like-type objects
+ * @param <V> value type
+ */
+public class AdaptiveMap<K extends Comparable<K>, V> implements MapADT<K, V> {
+
+    private static final int DEFAULT_ARRAY_LIMIT = 32;
+    private static final int INITIAL_CAPACITY = 4;
+    private static final int SCAN_PATIENCE = 8;
+
+    private final int arrayLimit;
+    private Object[] keys;
+    private Object[] values;
+    private int count = 0;
+    private MapADT<K, V> large;
+    private boolean ordered;
+    private boolean scanned = false;
+    private long operations = 0;
+    private int modCount = 0;
+
+    public AdaptiveMap() {
+        this(DEFAULT_ARRAY_LIMIT);
+    }
+
+    /**
+     * Builds an empty map that keeps up to the given number of entries in
+     * sorted arrays before moving to a hash table or tree.
+     *
+     * @param arrayLimit largest size held in the compact array form
+     */
+    public AdaptiveMap(int arrayLimit) {
+        if (arrayLimit < 1) {
+            throw new IllegalArgumentException("Array limit must be positive: " + arrayLimit);
+        }
+        this.arrayLimit = arrayLimit;
+        keys = new Object[Math.min(INITIAL_CAPACITY, arrayLimit)];
+        values = new Object[keys.length];
+    }
+
+    /**
+     * Returns true if the map has an object for the corresponding key.
+     *
+     * @param key object to search for
+     * @return true if within map, false otherwise
+     */
+    public boolean contains(K key) {
+        operations++;
+        if (large != null) {
+            return large.contains(key);
+        }
+        return search(key) >= 0;
+    }
+
+    /**
+     * Adds the given key/value pair to the map.
+     *
+     * @param key   Key to add to the map
+     * @param value Corresponding value to associate with the key
+     * @return the previous value associated with this key or null if new
+     */
+    @SuppressWarnings("unchecked")
+    public V add(K key, V value) {
+        operations++;
+        if (large != null) {
+            int before = large.size();
+            V old = large.add(key, value);
+            if (large.size() != before) {
+                modCount++;
+            }
+            reconsider();
+            return old;
+        }
+        int slot = search(key);
+        if (slot >= 0) {
+            V old = (V) values[slot];
+            values[slot] = value;
+            return old;
+        }
+        if (count == arrayLimit) {
+            migrate(prefersOrder());
+            large.add(key, value);
+            return null;
+        }
+        slot = -(slot + 1);
+        if (count == keys.length) {
+            int size = Math.min(keys.length * 2, arrayLimit);
+            keys = Arrays.copyOf(keys, size);
+            values = Arrays.copyOf(values, size);
+        }
+        System.arraycopy(keys, slot, keys, slot + 1, count - slot);
+        System.arraycopy(values, slot, values, slot + 1, count - slot);
+        keys[slot] = key;
+        values[slot] = value;
+        count++;
+        modCount++;
+        return null;
+    }
+
+    /**
+     * Removes the key/value pair identified by the key parameter from the map.
+     *
+     * @param key item to remove
+     * @return true if removed, false if not found or unable to remove
+     */
+    public boolean delete(K key) {
+        operations++;
+        if (large != null) {
+            if (!large.delete(key)) {
+                return false;
+            }
+            modCount++;
+            if (large.size() <= arrayLimit / 2) {
+                shrink();
+            }
+            else {
+                reconsider();
+            }
+            return true;
+        }
+        int slot = search(key);
+        if (slot < 0) {
+            return false;
+        }
+        count--;
+        System.arraycopy(keys, slot + 1, keys, slot, count - slot);
+        System.arraycopy(values, slot + 1, values, slot, count - slot);
+        keys[count] = null;
+        values[count] = null;
+        modCount++;
+        return true;
+    }
+
+    /**
+     * Returns the value associated with the parameter key.
+     *
+     * @param key key to lookup in the map
+     * @return Value associated with key or null if not found
+     */
+    @SuppressWarnings("unchecked")
+    public V getValue(K key) {
+        operations++;
+        if (large != null) {
+            return large.getValue(key);
+        }
+        int slot = search(key);
+        return slot >= 0 ? (V) values[slot] : null;
+    }
+
+    /**
+     * Returns the first key found with the parameter value.
+     *
+     * @param value value to locate
+     * @return key of first item found with the matching value
+     */
+    @SuppressWarnings("unchecked")
+    public K getKey(V value) {
+        if (large != null) {
+            return large.getKey(value);
+        }
+        for (int i = 0; i < count; i++) {
+            if (values[i].equals(value)) {
+                return (K) keys[i];
+            }
+        }
+        return null;
+    }
+
+    /**
+     * Identifies the maxSize of the map.
+     *
+     * @return Number of entries stored in the map.
+     */
+    public int size() {
+        return large != null ? large.size() : count;
+    }
+
+    /**
+     * Indicates if the map contains nothing.
+     * @return true if the map is empty, as the method cryptically indicates.
+     */
+    public boolean isEmpty() {
+        return size() == 0;
+    }
+
+    /**
+     * Resets the map to an empty state with no entries. The map returns to
+     * the array form and forgets how it has been used.
+     */
+    public void clear() {
+        large = null;
+        keys = new Object[Math.min(INITIAL_CAPACITY, arrayLimit)];
+        values = new Object[keys.length];
+        count = 0;
+        scanned = false;
+        operations = 0;
+        modCount++;
+    }
+
+    /**
+     * Provides a key iterator. A map held in a hash table moves to the tree
+     * first so the keys can arrive in order.
+     * @return Iterator over the keys in sorted order
+     */
+    public Iterator<K> keys() {
+        if (large != null) {
+            return checked(orderedLarge().keys());
+        }
+        noteScan();
+        return new ArrayWalk<>(keys);
+    }
+
+    /**
+     * Provides a value iterator. The values arrive corresponding to their
+     * keys in the key order.
+     * @return Iterator over the values.
+     */
+    public Iterator<V> values() {
+        if (large != null) {
+            return checked(orderedLarge().values());
+        }
+        noteScan();
+        return new ArrayWalk<>(values);
+    }
+
+    /**
+     * Names the representation currently holding the entries, for
+     * inspecting what the map has settled on.
+     *
+     * @return "array", "hash" or "tree"
+     */
+    public String representation() {
+        if (large == null) {
+            return "array";
+        }
+        return ordered ? "tree" : "hash";
+    }
+
+    /**
+     * Walks a prefix of one of the arrays, failing fast if the map changes.
+     * The length is fixed when the walk starts, since a migration empties
+     * count and would otherwise end the walk early without complaint.
+     */
+    private final class ArrayWalk<T> implements Iterator<T> {
+        final Object[] items;
+        final int expectedModCount = modCount;
+        final int end = count;
+        int next = 0;
+
+        ArrayWalk(Object[] items) {
+            this.items = items;
+        }
+
+        @Override
+        public boolean hasNext() {
+            return next < end;
+        }
+
+        @Override
+        @SuppressWarnings("unchecked")
+        public T next() {
+            if (modCount != expectedModCount) {
+                throw new ConcurrentModificationException();
+            }
+            if (next >= end) {
+                throw new NoSuchElementException();
+            }
+            return (T) items[next++];
+        }
+    }
+
+    /**
+     * Wraps an iterator over the large representation so that it fails
+     * fast if the map is modified or moves to another representation,
+     * which would otherwise leave it walking a stale copy.
+     */
+    private <T> Iterator<T> checked(Iterator<T> walk) {
+        int expectedModCount = modCount;
+        return new Iterator<T>() {
+            @Override
+            public boolean hasNext() {
+                return walk.hasNext();
+            }
+
+            @Override
+            public T next() {
+                if (modCount != expectedModCount) {
+                    throw new ConcurrentModificationException();
+                }
+                return walk.next();
+            }
+        };
+    }
+
+    private MapADT<K, V> orderedLarge() {
+        noteScan();
+        if (!ordered) {
+            migrate(true);
+        }
+        return large;
+    }
+
+    private void noteScan() {
+        scanned = true;
+        operations = 0;
+    }
+
+    /**
+     * True if an ordered scan has happened recently enough, measured in
+     * operations per entry, that the caller probably still wants one.
+     */
+    private boolean prefersOrder() {
+        return scanned && operations <= (long) SCAN_PATIENCE * Math.max(size(), arrayLimit);
+    }
+
+    /**
+     * Moves a tree that has gone unscanned for long enough to a hash table.
+     * Only writes call this, so reads never invalidate open iterators.
+     */
+    private void reconsider() {
+        if (ordered && !prefersOrder()) {
+            migrate(false);
+        }
+    }
+
+    /**
+     * Copies every entry into a new tree or hash table and makes it the
+     * current representation.
+     */
+    @SuppressWarnings("unchecked")
+    private void migrate(boolean toTree) {
+        MapADT<K, V> target;
+        if (toTree) {
+            BPlusTree<K, V> tree = new BPlusTree<>();
+            for (Map.Entry<K, V> entry : sortedEntries()) {
+                tree.add(entry.getKey(), entry.getValue());
+            }
+            target = tree;
+        }
+        else {
+            HashTable<K, V> table = new HashTable<>(2 * size(), false, true);
+            if (large != null) {
+                table.addAll(large);
+            }
+            else {
+                for (int i = 0; i < count; i++) {
+                    table.add((K) keys[i], (V) values[i]);
+                }
+            }
+            target = table;
+        }
+        large = target;
+        ordered = toTree;
+        keys = null;
+        values = null;
+        count = 0;
+        operations = 0;
+        modCount++;
+    }
+
+    /**
+     * Returns from the large representation to the sorted arrays.
+     */
+    private void shrink() {
+        List<Map.Entry<K, V>> entries = sortedEntries();
+        keys = new Object[arrayLimit];
+        values = new Object[arrayLimit];
+        for (Map.Entry<K, V> entry : entries) {
+            keys[count] = entry.getKey();
+            values[count] = entry.getValue();
+            count++;
+        }
+        large = null;
+        operations = 0;
+        modCount++;
+    }
+
+    /**
+     * Lists the entries in key order, sorting them only when they come
+     * from the hash table.
+     */
+    @SuppressWarnings("unchecked")
+    private List<Map.Entry<K, V>> sortedEntries() {
+        List<Map.Entry<K, V>> entries = new ArrayList<>(size());
+        if (large == null) {
+            for (int i = 0; i < count; i++) {
+                entries.add(new AbstractMap.SimpleEntry<>((K) keys[i], (V) values[i]));
+            }
+            return entries;
+        }
+        Iterator<K> keyWalk = large.keys();
+        Iterator<V> valueWalk = large.values();
+        while (keyWalk.hasNext()) {
+            entries.add(new AbstractMap.SimpleEntry<>(keyWalk.next(), valueWalk.next()));
+        }
+        if (!ordered) {
+            entries.sort(Map.Entry.comparingByKey());
+        }
+        return entries;
+    }
+
+    /**
+     * Binary searches the array form.
+     *
+     * @return the key's slot, or -(insertion point + 1) if absent
+     */
+    @SuppressWarnings("unchecked")
+    private int search(K key) {
+        int low = 0;
+        int high = count - 1;
+        while (low <= high) {
+            int mid = (low + high) >>> 1;
+            int cmp = ((K) keys[mid]).compareTo(key);
+            if (cmp < 0) {
+                low = mid + 1;
+            }
+            else if (cmp > 0) {
+                high = mid - 1;
+            }
+            else {
+                return mid;
+            }
+        }
+        return -(low + 1);
+    }
+}
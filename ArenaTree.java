@@ -0,0 +1,347 @@
+package edu.sdsu.cs.datastructures;
+
+import java.util.Arrays;
+import java.util.ConcurrentModificationException;
+import java.util.Iterator;
+import java.util.NoSuchElementException;
+
+/**
+ * A binary search tree laid out as parallel arrays instead of node objects.
+ * <p>Node n is slot n of the key, value, left and right arrays, and links
+ * are int indices rather than references, with -1 for no child. Compared
+ * with BinarySearchTree's Entry objects this drops the per-node object
+ * header and the parent reference, and searches walk a few dense arrays
+ * instead of objects scattered across the heap. Slots freed by delete are
+ * chained into a free list through the left array and reused by later
+ * inserts. The arrays double when full.
+ * </p>
+ * <p>Like BinarySearchTree the tree is not rebalanced, so its shape depends
+ * on the insertion order.
+ * </p>
+ *
+ * @param <K> key type, must support comparison with like-type objects
+ * @param <V> value type
+ */
+public class ArenaTree<K extends Comparable<K>, V> implements MapADT<K, V> {
+
+    private static final int DEFAULTSIZE = 16;
+    private static final int NIL = -1;
+
+    private Object[] keys;
+    private Object[] values;
+    private int[] left;
+    private int[] right;
+    private int root = NIL;
+    private int free = NIL;
+    private int used = 0;
+    private int elements = 0;
+    private int modCount = 0;
+
+    public ArenaTree() {
+        this(DEFAULTSIZE);
+    }
+
+    /**
+     * Builds an empty tree with room for the given number of entries
+     * before its arrays grow.
+     *
+     * @param capacity number of entries to size for
+     */
+    public ArenaTree(int capacity) {
+        if (capacity < 0) {
+            throw new IllegalArgumentException("Negative capacity: " + capacity);
+        }
+        int size = Math.max(capacity, 1);
+        keys = new Object[size];
+        values = new Object[size];
+        left = new int[size];
+        right = new int[size];
+    }
+
+    /**
+     * Returns true if the map has an object for the corresponding key.
+     *
+     * @param key object to search for
+     * @return true if within map, false otherwise
+     */
+    public boolean contains(K key) {
+        return find(key) != NIL;
+    }
+
+    /**
+     * Adds the given key/value pair to the map.
+     *
+     * @param key   Key to add to the map
+     * @param value Corresponding value to associate with the key
+     * @return the previous value associated with this key or null if new
+     */
+    @SuppressWarnings("unchecked")
+    public V add(K key, V value) {
+        int parent = NIL;
+        int direction = 0;
+        int node = root;
+        while (node != NIL) {
+            direction = key.compareTo(key(node));
+            if (direction == 0) {
+                V old = (V) values[node];
+                values[node] = value;
+                return old;
+            }
+            parent = node;
+            node = direction < 0 ? left[node] : right[node];
+        }
+        int slot = allocate(key, value);
+        if (parent == NIL) {
+            root = slot;
+        }
+        else if (direction < 0) {
+            left[parent] = slot;
+        }
+        else {
+            right[parent] = slot;
+        }
+        elements++;
+        modCount++;
+        return null;
+    }
+
+    /**
+     * Removes the key/value pair identified by the key parameter from the map.
+     *
+     * @param key item to remove
+     * @return true if removed, false if not found or unable to remove
+     */
+    public boolean delete(K key) {
+        int parent = NIL;
+        int node = root;
+        while (node != NIL) {
+            int direction = key.compareTo(key(node));
+            if (direction == 0) {
+                break;
+            }
+            parent = node;
+            node = direction < 0 ? left[node] : right[node];
+        }
+        if (node == NIL) {
+            return false;
+        }
+        if (left[node] != NIL && right[node] != NIL) {
+            // Pull the successor's entry up into this slot, then remove the
+            // successor's slot instead; it has no left child.
+            int successorParent = node;
+            int successor = right[node];
+            while (left[successor] != NIL) {
+                successorParent = successor;
+                successor = left[successor];
+            }
+            keys[node] = keys[successor];
+            values[node] = values[successor];
+            parent = successorParent;
+            node = successor;
+        }
+        int child = left[node] != NIL ? left[node] : right[node];
+        if (parent == NIL) {
+            root = child;
+        }
+        else if (left[parent] == node) {
+            left[parent] = child;
+        }
+        else {
+            right[parent] = child;
+        }
+        release(node);
+        elements--;
+        modCount++;
+        return true;
+    }
+
+    /**
+     * Returns the value associated with the parameter key.
+     *
+     * @param key key to lookup in the map
+     * @return Value associated with key or null if not found
+     */
+    @SuppressWarnings("unchecked")
+    public V getValue(K key) {
+        int node = find(key);
+        return node == NIL ? null : (V) values[node];
+    }
+
+    /**
+     * Returns the first key found with the parameter value.
+     *
+     * @param value value to locate
+     * @return key of first item found with the matching value
+     */
+    public K getKey(V value) {
+        for (InOrder walk = new InOrder(); walk.hasNext(); ) {
+            int node = walk.nextSlot();
+            if (values[node].equals(value)) {
+                return key(node);
+            }
+        }
+        return null;
+    }
+
+    /**
+     * Identifies the maxSize of the map.
+     *
+     * @return Number of entries stored in the map.
+     */
+    public int size() {
+        return elements;
+    }
+
+    /**
+     * Indicates if the map contains nothing.
+     * @return true if the map is empty, as the method cryptically indicates.
+     */
+    public boolean isEmpty() {
+        return elements == 0;
+    }
+
+    /**
+     * Resets the map to an empty state with no entries. The arrays keep
+     * their capacity.
+     */
+    public void clear() {
+        Arrays.fill(keys, 0, used, null);
+        Arrays.fill(values, 0, used, null);
+        root = NIL;
+        free = NIL;
+        used = 0;
+        elements = 0;
+        modCount++;
+    }
+
+    /**
+     * Provides a key iterator.
+     * @return Iterator over the keys in sorted order
+     */
+    public Iterator<K> keys() {
+        InOrder walk = new InOrder();
+        return new Iterator<K>() {
+            @Override
+            public boolean hasNext() {
+                return walk.hasNext();
+            }
+
+            @Override
+            public K next() {
+                return key(walk.nextSlot());
+            }
+        };
+    }
+
+    /**
+     * Provides a value iterator. The values arrive corresponding to their
+     * keys in the key order.
+     * @return Iterator over the values.
+     */
+    @SuppressWarnings("unchecked")
+    public Iterator<V> values() {
+        InOrder walk = new InOrder();
+        return new Iterator<V>() {
+            @Override
+            public boolean hasNext() {
+                return walk.hasNext();
+            }
+
+            @Override
+            public V next() {
+                return (V) values[walk.nextSlot()];
+            }
+        };
+    }
+
+    /**
+     * Walks the slots in key order, keeping the path of pending ancestors
+     * in an int array rather than a stack of boxed indices.
+     */
+    private final class InOrder {
+        final int expectedModCount = modCount;
+        int[] path = new int[16];
+        int depth = 0;
+
+        InOrder() {
+            descend(root);
+        }
+
+        private void descend(int node) {
+            for (; node != NIL; node = left[node]) {
+                if (depth == path.length) {
+                    path = Arrays.copyOf(path, depth * 2);
+                }
+                path[depth++] = node;
+            }
+        }
+
+        boolean hasNext() {
+            return depth > 0;
+        }
+
+        int nextSlot() {
+            if (modCount != expectedModCount) {
+                throw new ConcurrentModificationException();
+            }
+            if (depth == 0) {
+                throw new NoSuchElementException();
+            }
+            int node = path[--depth];
+            descend(right[node]);
+            return node;
+        }
+    }
+
+    private int find(K key) {
+        int node = root;
+        while (node != NIL) {
+            int direction = key.compareTo(key(node));
+            if (direction == 0) {
+                return node;
+            }
+            node = direction < 0 ? left[node] : right[node];
+        }
+        return NIL;
+    }
+
+    @SuppressWarnings("unchecked")
+    private K key(int node) {
+        return (K) keys[node];
+    }
+
+    /**
+     * Takes a slot from the free list, or the next unused slot, growing the
+     * arrays if every slot is taken.
+     */
+    private int allocate(K key, V value) {
+        int slot;
+        if (free != NIL) {
+            slot = free;
+            free = left[slot];
+        }
+        else {
+            if (used == keys.length) {
+                int size = keys.length * 2;
+                keys = Arrays.copyOf(keys, size);
+                values = Arrays.copyOf(values, size);
+                left = Arrays.copyOf(left, size);
+                right = Arrays.copyOf(right, size);
+            }
+            slot = used++;
+        }
+        keys[slot] = key;
+        values[slot] = value;
+        left[slot] = NIL;
+        right[slot] = NIL;
+        return slot;
+    }
+
+    private void release(int slot) {
+        keys[slot] = null;
+        values[slot] = null;
+        right[slot] = NIL;
+        left[slot] = free;
+        free = slot;
+    }
+}
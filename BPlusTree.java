@@ -0,0 +1,547 @@
+package edu.sdsu.cs.datastructures;
+
+import java.util.ConcurrentModificationException;
+import java.util.Iterator;
+import java.util.NoSuchElementException;
+
+/**
+ * A B+tree held in memory.
+ * <p>Each node keeps its keys in one sorted array, so a lookup binary
+ * searches a few contiguous arrays instead of chasing a pointer for every
+ * comparison the way BinarySearchTree does. With the default fanout of 64 a
+ * million keys sit only four levels deep. All entries live in the leaves,
+ * which are linked left to right, so iteration runs along the leaf chain
+ * without returning to the inner nodes.
+ * </p>
+ * <p>Every node except the root stays at least half full: inserts split a
+ * node that overflows, and deletes borrow from or merge with a sibling when
+ * a node drops below half.
+ * </p>
+ *
+ * @param <K> key type, must support comparison with like-type objects
+ * @param <V> value type
+ */
+public class BPlusTree<K extends Comparable<K>, V> implements MapADT<K, V> {
+
+    private static final int DEFAULT_FANOUT = 64;
+
+    private final int fanout;
+    private final int minimum;
+    private Node root;
+    private int elements = 0;
+    private int modCount = 0;
+
+    // Results handed back up the recursive insert and delete.
+    private Object separator;
+    private V replaced;
+    private boolean removed;
+
+    private abstract static class Node {
+        Object[] keys;
+        int count;
+    }
+
+    private static final class Leaf extends Node {
+        Object[] values;
+        Leaf next;
+
+        Leaf(int fanout) {
+            keys = new Object[fanout + 1];
+            values = new Object[fanout + 1];
+        }
+    }
+
+    private static final class Inner extends Node {
+        Node[] children;
+
+        Inner(int fanout) {
+            keys = new Object[fanout];
+            children = new Node[fanout + 1];
+        }
+    }
+
+    public BPlusTree() {
+        this(DEFAULT_FANOUT);
+    }
+
+    /**
+     * Creates an empty tree whose leaves hold up to fanout entries and whose
+     * inner nodes hold up to fanout children.
+     *
+     * @param fanout widest a node may grow before it splits
+     * @throws IllegalArgumentException if fanout is below 3
+     */
+    public BPlusTree(int fanout) {
+        if (fanout < 3) {
+            throw new IllegalArgumentException("Fanout must be at least 3: " + fanout);
+        }
+        this.fanout = fanout;
+        this.minimum = (fanout + 1) / 2;
+        this.root = new Leaf(fanout);
+    }
+
+    /**
+     * Returns true if the map has an object for the corresponding key.
+     *
+     * @param key object to search for
+     * @return true if within map, false otherwise
+     */
+    public boolean contains(K key) {
+        Leaf leaf = leafFor(key);
+        return search(leaf, key) >= 0;
+    }
+
+    /**
+     * Adds the given key/value pair to the map.
+     *
+     * @param key   Key to add to the map
+     * @param value Corresponding value to associate with the key
+     * @return the previous value associated with this key or null if new
+     */
+    public V add(K key, V value) {
+        replaced = null;
+        Node sibling = insert(root, key, value);
+        if (sibling != null) {
+            Inner top = new Inner(fanout);
+            top.keys[0] = separator;
+            top.children[0] = root;
+            top.children[1] = sibling;
+            top.count = 1;
+            root = top;
+        }
+        separator = null;
+        V old = replaced;
+        replaced = null;
+        return old;
+    }
+
+    /**
+     * Removes the key/value pair identified by the key parameter from the map.
+     *
+     * @param key item to remove
+     * @return true if removed, false if not found or unable to remove
+     */
+    public boolean delete(K key) {
+        removed = false;
+        remove(root, key);
+        if (root instanceof Inner && root.count == 0) {
+            root = ((Inner) root).children[0];
+        }
+        return removed;
+    }
+
+    /**
+     * Returns the value associated with the parameter key.
+     *
+     * @param key key to lookup in the map
+     * @return Value associated with key or null if not found
+     */
+    @SuppressWarnings("unchecked")
+    public V getValue(K key) {
+        Leaf leaf = leafFor(key);
+        int index = search(leaf, key);
+        return index < 0 ? null : (V) leaf.values[index];
+    }
+
+    /**
+     * Returns the first key found with the parameter value.
+     *
+     * @param value value to locate
+     * @return key of first item found with the matching value
+     */
+    @SuppressWarnings("unchecked")
+    public K getKey(V value) {
+        for (Leaf leaf = firstLeaf(); leaf != null; leaf = leaf.next) {
+            for (int i = 0; i < leaf.count; i++) {
+                if (leaf.values[i].equals(value)) {
+                    return (K) leaf.keys[i];
+                }
+            }
+        }
+        return null;
+    }
+
+    /**
+     * Identifies the maxSize of the map.
+     *
+     * @return Number of entries stored in the map.
+     */
+    public int size() {
+        return elements;
+    }
+
+    /**
+     * Indicates if the map contains nothing.
+     * @return true if the map is empty, as the method cryptically indicates.
+     */
+    public boolean isEmpty() {
+        return elements == 0;
+    }
+
+    /**
+     * Resets the map to an empty state with no entries.
+     */
+    public void clear() {
+        root = new Leaf(fanout);
+        elements = 0;
+        modCount++;
+    }
+
+    /**
+     * Provides a key iterator.
+     * @return Iterator over the keys in sorted order
+     */
+    public Iterator<K> keys() {
+        LeafWalk walk = new LeafWalk();
+        return new Iterator<K>() {
+            @Override
+            public boolean hasNext() {
+                return walk.hasNext();
+            }
+
+            @Override
+            @SuppressWarnings("unchecked")
+            public K next() {
+                walk.advance();
+                return (K) walk.leaf.keys[walk.index++];
+            }
+        };
+    }
+
+    /**
+     * Provides a value iterator. The values arrive corresponding to their
+     * keys in the key order.
+     * @return Iterator over the values.
+     */
+    public Iterator<V> values() {
+        LeafWalk walk = new LeafWalk();
+        return new Iterator<V>() {
+            @Override
+            public boolean hasNext() {
+                return walk.hasNext();
+            }
+
+            @Override
+            @SuppressWarnings("unchecked")
+            public V next() {
+                walk.advance();
+                return (V) walk.leaf.values[walk.index++];
+            }
+        };
+    }
+
+    /**
+     * Height of the tree, one when every entry fits in a single leaf.
+     *
+     * @return number of nodes on any root-to-leaf path
+     */
+    public int height() {
+        int height = 1;
+        for (Node node = root; node instanceof Inner; node = ((Inner) node).children[0]) {
+            height++;
+        }
+        return height;
+    }
+
+    /**
+     * Steps along the leaf chain one slot at a time.
+     */
+    private final class LeafWalk {
+        final int expectedModCount = modCount;
+        Leaf leaf = firstLeaf();
+        int index = 0;
+
+        boolean hasNext() {
+            while (leaf != null && index >= leaf.count) {
+                leaf = leaf.next;
+                index = 0;
+            }
+            return leaf != null;
+        }
+
+        void advance() {
+            if (modCount != expectedModCount) {
+                throw new ConcurrentModificationException();
+            }
+            if (!hasNext()) {
+                throw new NoSuchElementException();
+            }
+        }
+    }
+
+    private Leaf firstLeaf() {
+        Node node = root;
+        while (node instanceof Inner) {
+            node = ((Inner) node).children[0];
+        }
+        return (Leaf) node;
+    }
+
+    private Leaf leafFor(K key) {
+        Node node = root;
+        while (node instanceof Inner) {
+            node = ((Inner) node).children[childIndex(node, key)];
+        }
+        return (Leaf) node;
+    }
+
+    /**
+     * Binary searches a leaf, returning the key's slot or, when absent,
+     * -(insertion point) - 1 as Arrays.binarySearch does.
+     */
+    @SuppressWarnings("unchecked")
+    private static <K extends Comparable<K>> int search(Node node, K key) {
+        int low = 0;
+        int high = node.count - 1;
+        while (low <= high) {
+            int mid = (low + high) >>> 1;
+            int cmp = ((K) node.keys[mid]).compareTo(key);
+            if (cmp < 0) {
+                low = mid + 1;
+            }
+            else if (cmp > 0) {
+                high = mid - 1;
+            }
+            else {
+                return mid;
+            }
+        }
+        return -(low + 1);
+    }
+
+    /**
+     * Picks the child of an inner node that covers the key. Separator i is
+     * the smallest key reachable through child i + 1.
+     */
+    private static <K extends Comparable<K>> int childIndex(Node node, K key) {
+        int index = search(node, key);
+        return index >= 0 ? index + 1 : -index - 1;
+    }
+
+    /**
+     * Inserts below node, returning the new right sibling if node split and
+     * leaving the key that divides them in separator.
+     */
+    @SuppressWarnings("unchecked")
+    private Node insert(Node node, K key, V value) {
+        if (node instanceof Leaf) {
+            Leaf leaf = (Leaf) node;
+            int index = search(leaf, key);
+            if (index >= 0) {
+                replaced = (V) leaf.values[index];
+                leaf.values[index] = value;
+                return null;
+            }
+            index = -index - 1;
+            shift(leaf.keys, index, leaf.count, 1);
+            shift(leaf.values, index, leaf.count, 1);
+            leaf.keys[index] = key;
+            leaf.values[index] = value;
+            leaf.count++;
+            elements++;
+            modCount++;
+            return leaf.count > fanout ? splitLeaf(leaf) : null;
+        }
+        Inner inner = (Inner) node;
+        int index = childIndex(inner, key);
+        Node sibling = insert(inner.children[index], key, value);
+        if (sibling == null) {
+            return null;
+        }
+        shift(inner.keys, index, inner.count, 1);
+        shift(inner.children, index + 1, inner.count + 1, 1);
+        inner.keys[index] = separator;
+        inner.children[index + 1] = sibling;
+        inner.count++;
+        return inner.count + 1 > fanout ? splitInner(inner) : null;
+    }
+
+    private Leaf splitLeaf(Leaf leaf) {
+        Leaf right = new Leaf(fanout);
+        int keep = minimum;
+        int move = leaf.count - keep;
+        System.arraycopy(leaf.keys, keep, right.keys, 0, move);
+        System.arraycopy(leaf.values, keep, right.values, 0, move);
+        clearSlots(leaf.keys, keep, leaf.count);
+        clearSlots(leaf.values, keep, leaf.count);
+        leaf.count = keep;
+        right.count = move;
+        right.next = leaf.next;
+        leaf.next = right;
+        separator = right.keys[0];
+        return right;
+    }
+
+    private Inner splitInner(Inner inner) {
+        Inner right = new Inner(fanout);
+        int keepChildren = minimum;
+        int moveChildren = inner.count + 1 - keepChildren;
+        separator = inner.keys[keepChildren - 1];
+        System.arraycopy(inner.keys, keepChildren, right.keys, 0, moveChildren - 1);
+        System.arraycopy(inner.children, keepChildren, right.children, 0, moveChildren);
+        clearSlots(inner.keys, keepChildren - 1, inner.count);
+        clearSlots(inner.children, keepChildren, inner.count + 1);
+        inner.count = keepChildren - 1;
+        right.count = moveChildren - 1;
+        return right;
+    }
+
+    /**
+     * Removes the key below node, then repairs any child left under half
+     * full. The caller repairs node itself.
+     */
+    private void remove(Node node, K key) {
+        if (node instanceof Leaf) {
+            Leaf leaf = (Leaf) node;
+            int index = search(leaf, key);
+            if (index < 0) {
+                return;
+            }
+            shift(leaf.keys, index + 1, leaf.count, -1);
+            shift(leaf.values, index + 1, leaf.count, -1);
+            leaf.count--;
+            leaf.keys[leaf.count] = null;
+            leaf.values[leaf.count] = null;
+            elements--;
+            modCount++;
+            removed = true;
+            return;
+        }
+        Inner inner = (Inner) node;
+        int index = childIndex(inner, key);
+        Node child = inner.children[index];
+        remove(child, key);
+        if (removed && underfull(child)) {
+            rebalance(inner, index);
+        }
+    }
+
+    private boolean underfull(Node node) {
+        return node instanceof Leaf ? node.count < minimum : node.count + 1 < minimum;
+    }
+
+    private boolean canLend(Node node) {
+        return node instanceof Leaf ? node.count > minimum : node.count + 1 > minimum;
+    }
+
+    /**
+     * Tops up the child at index by borrowing one entry from a sibling, or
+     * merges it with a sibling when neither has one to spare.
+     */
+    private void rebalance(Inner parent, int index) {
+        Node child = parent.children[index];
+        Node left = index > 0 ? parent.children[index - 1] : null;
+        Node right = index < parent.count ? parent.children[index + 1] : null;
+        if (left != null && canLend(left)) {
+            borrowFromLeft(parent, index, left, child);
+        }
+        else if (right != null && canLend(right)) {
+            borrowFromRight(parent, index, child, right);
+        }
+        else if (left != null) {
+            merge(parent, index - 1, left, child);
+        }
+        else {
+            merge(parent, index, child, right);
+        }
+    }
+
+    private void borrowFromLeft(Inner parent, int index, Node left, Node child) {
+        if (child instanceof Leaf) {
+            Leaf to = (Leaf) child;
+            Leaf from = (Leaf) left;
+            shift(to.keys, 0, to.count, 1);
+            shift(to.values, 0, to.count, 1);
+            from.count--;
+            to.keys[0] = from.keys[from.count];
+            to.values[0] = from.values[from.count];
+            from.keys[from.count] = null;
+            from.values[from.count] = null;
+            to.count++;
+            parent.keys[index - 1] = to.keys[0];
+            return;
+        }
+        Inner to = (Inner) child;
+        Inner from = (Inner) left;
+        shift(to.keys, 0, to.count, 1);
+        shift(to.children, 0, to.count + 1, 1);
+        to.keys[0] = parent.keys[index - 1];
+        to.children[0] = from.children[from.count];
+        parent.keys[index - 1] = from.keys[from.count - 1];
+        from.keys[from.count - 1] = null;
+        from.children[from.count] = null;
+        from.count--;
+        to.count++;
+    }
+
+    private void borrowFromRight(Inner parent, int index, Node child, Node right) {
+        if (child instanceof Leaf) {
+            Leaf to = (Leaf) child;
+            Leaf from = (Leaf) right;
+            to.keys[to.count] = from.keys[0];
+            to.values[to.count] = from.values[0];
+            to.count++;
+            shift(from.keys, 1, from.count, -1);
+            shift(from.values, 1, from.count, -1);
+            from.count--;
+            from.keys[from.count] = null;
+            from.values[from.count] = null;
+            parent.keys[index] = from.keys[0];
+            return;
+        }
+        Inner to = (Inner) child;
+        Inner from = (Inner) right;
+        to.keys[to.count] = parent.keys[index];
+        to.children[to.count + 1] = from.children[0];
+        to.count++;
+        parent.keys[index] = from.keys[0];
+        shift(from.keys, 1, from.count, -1);
+        shift(from.children, 1, from.count + 1, -1);
+        from.keys[from.count - 1] = null;
+        from.children[from.count] = null;
+        from.count--;
+    }
+
+    /**
+     * Folds right into left, dropping separator sep and the pointer to
+     * right from the parent.
+     */
+    private void merge(Inner parent, int sep, Node left, Node right) {
+        if (left instanceof Leaf) {
+            Leaf to = (Leaf) left;
+            Leaf from = (Leaf) right;
+            System.arraycopy(from.keys, 0, to.keys, to.count, from.count);
+            System.arraycopy(from.values, 0, to.values, to.count, from.count);
+            to.count += from.count;
+            to.next = from.next;
+        }
+        else {
+            Inner to = (Inner) left;
+            Inner from = (Inner) right;
+            to.keys[to.count] = parent.keys[sep];
+            System.arraycopy(from.keys, 0, to.keys, to.count + 1, from.count);
+            System.arraycopy(from.children, 0, to.children, to.count + 1, from.count + 1);
+            to.count += from.count + 1;
+        }
+        shift(parent.keys, sep + 1, parent.count, -1);
+        shift(parent.children, sep + 2, parent.count + 1, -1);
+        parent.count--;
+        parent.keys[parent.count] = null;
+        parent.children[parent.count + 1] = null;
+    }
+
+    /**
+     * Moves the slots from..end by distance places within the array.
+     */
+    private static void shift(Object[] array, int from, int end, int distance) {
+        if (from < end) {
+            System.arraycopy(array, from, array, from + distance, end - from);
+        }
+    }
+
+    private static void clearSlots(Object[] array, int from, int end) {
+        for (int i = from; i < end; i++) {
+            array[i] = null;
+        }
+    }
+}
@@ -2,15 +2,54 @@ package edu.sdsu.cs.datastructures;
 
 import java.lang.reflect.Array;
 import java.util.*;
+import java.util.function.Consumer;
+import java.util.function.Function;
 
-public class BinarySearchTree<K extends Comparable<K>,V> implements MapADT<K,V> {
+public class BinarySearchTree<K extends Comparable<K>,V> implements NavigableMapADT<K,V> {
 
-    private LinkedList<Entry <K, V>> tree;
     public Entry<K,V> root;
     public int elements=0;
+    private int modCount=0;
+    private ValueIndex<K, V> valueIndex;
 
     public BinarySearchTree(){
-        tree = new LinkedList<>();
+    }
+
+    /**
+     * Builds a perfectly balanced tree from keys already in ascending
+     * order, in time linear in the number of entries.
+     *
+     * @param keys   strictly increasing keys
+     * @param values values matching keys position for position
+     * @throws IllegalArgumentException if the arrays differ in length or
+     *                                  the keys are not strictly increasing
+     */
+    public BinarySearchTree(K[] keys, V[] values){
+        this(Arrays.asList(keys).iterator(), Arrays.asList(values).iterator(), keys.length);
+        if (values.length != keys.length){
+            throw new IllegalArgumentException("Key and value counts differ");
+        }
+    }
+
+    /**
+     * Builds a perfectly balanced tree from keys already in ascending
+     * order, such as the keys and values of another sorted map, in time
+     * linear in the number of entries. Entries are consumed as the tree is
+     * built, so nothing beyond the tree itself is buffered.
+     *
+     * @param keys   strictly increasing keys
+     * @param values values matching keys position for position
+     * @param count  number of entries to take from the iterators
+     * @throws IllegalArgumentException if the keys are not strictly
+     *                                  increasing or run out early
+     */
+    public BinarySearchTree(Iterator<K> keys, Iterator<V> values, int count){
+        if (count < 0){
+            throw new IllegalArgumentException("Negative count: " + count);
+        }
+        Builder builder = new Builder(keys, values);
+        root = builder.build(count);
+        elements = count;
     }
 
     public static class Entry<K,V> {
@@ -19,6 +58,7 @@ public class BinarySearchTree<K extends Comparable<K>,V> implements MapADT<K,V>
         Entry<K, V> rightChild = null;
         Entry<K, V> leftChild = null;
         Entry<K, V> parent = null;
+        int size = 1;
 
         public Entry(K k, V v) {
             key = k;
@@ -59,7 +99,7 @@ public class BinarySearchTree<K extends Comparable<K>,V> implements MapADT<K,V>
      * @return true if within map, false otherwise
      */
     public boolean contains(K key){
-        return findKey(key);
+        return findEntry(key) != null;
     }
 
     /**
@@ -70,24 +110,41 @@ public class BinarySearchTree<K extends Comparable<K>,V> implements MapADT<K,V>
      * @return the previous value associated with this key or null if new
      */
     public V add(K key, V value){
+        Entry<K, V> parent = null;
+        Entry<K, V> temp = getRoot();
+        int direction = 0;
+        while (temp != null){
+            direction = key.compareTo(temp.key);
+            if (direction == 0){
+                V old = temp.value;
+                temp.value = value;
+                if (valueIndex != null){
+                    valueIndex.update(key, old, value);
+                }
+                return old;
+            }
+            parent = temp;
+            temp = (direction < 0) ? temp.getLeft(temp.key) : temp.getRight(temp.key);
+        }
         Entry<K, V> entry = new Entry<>(key, value);
-        if (tree.size() == 0){
-            tree.add(entry);
+        if (parent == null){
             setRoot(entry);
-            elements++;
-            return null;
         }
         else{
-            if(findKey(entry.key)){
-                Entry<K, V> copy = tree.get(getIndex(key));
-                return copy.value;
+            if (direction < 0){ parent.setLeft(entry); }
+            else{ parent.setRight(entry); }
+            entry.setParent(parent);
+            for (; parent != null; parent = parent.getParent(parent.key)){
+                parent.size++;
             }
-            tree.add(entry);
-            elements++;
-            place(entry);
-            return null;
         }
-}
+        elements++;
+        modCount++;
+        if (valueIndex != null){
+            valueIndex.add(key, value);
+        }
+        return null;
+    }
 
     /**
      * Removes the key/value pair identified by the key parameter from the map.
@@ -96,175 +153,239 @@ public class BinarySearchTree<K extends Comparable<K>,V> implements MapADT<K,V>
      * @return true if removed, false if not found or unable to remove
      */
     public boolean delete(K key){
-        if (findKey(key) && elements > 0){
-            int spot = getIndex(key);
-            Entry<K, V> index = tree.get(spot);
-            if (!hasLeft(index) && !hasRight(index)){
-                return noChild(index);
-            }
-            else if(hasRight(index)&& hasLeft(index)){
-                return twoChild(index);
-            }
-            else if (hasRight(index) && !hasLeft(index)){
-                return rightChild(index);
-            }
-            else if (!hasRight(index) && hasLeft(index)){
-                return leftChild(index);
+        Entry<K, V> index = findEntry(key);
+        if (index == null){
+            return false;
+        }
+        if (valueIndex != null){
+            valueIndex.remove(key, index.value);
+        }
+        Entry<K, V> changed = index.getParent(index.key);
+        if (!hasLeft(index)){
+            transplant(index, index.getRight(index.key));
+        }
+        else if (!hasRight(index)){
+            transplant(index, index.getLeft(index.key));
+        }
+        else{
+            Entry<K, V> next = first(index.getRight(index.key));
+            changed = next;
+            if (next.getParent(next.key) != index){
+                changed = next.getParent(next.key);
+                transplant(next, next.getRight(next.key));
+                next.setRight(index.getRight(index.key));
+                next.getRight(next.key).setParent(next);
             }
-            else{ return false; }
+            transplant(index, next);
+            next.setLeft(index.getLeft(index.key));
+            next.getLeft(next.key).setParent(next);
         }
-        return false;
-    }
-
-    private boolean isRoot (Entry<K, V> test){
-        if (test == getRoot()){ return true; }
-        else { return false; }
+        for (; changed != null; changed = changed.getParent(changed.key)){
+            changed.size = 1 + size(changed.getLeft(changed.key))
+                    + size(changed.getRight(changed.key));
+        }
+        elements--;
+        modCount++;
+        return true;
     }
 
-    private void setChild (Entry<K, V> old, Entry<K, V> replacement){
+    /**
+     * Puts the replacement, which may be null, where old hangs in the tree.
+     */
+    private void transplant (Entry<K, V> old, Entry<K, V> replacement){
         Entry<K, V> parent = old.getParent(old.key);
-        if ((old.key).compareTo(parent.key) < 0){
+        if (parent == null){
+            root = replacement;
+        }
+        else if (old == parent.getLeft(parent.key)){
             parent.setLeft(replacement);
-            replacement.setParent(parent);
         }
         else{
             parent.setRight(replacement);
+        }
+        if (replacement != null){
             replacement.setParent(parent);
         }
     }
 
-    private boolean twoChild (Entry<K, V> index){
-        Entry<K, V> parent;
-        Entry<K, V> right;
-        Entry <K, V> left = index.getLeft(index.key);
-        if (hasRight(left)){
-            right = left.getRight(left.key);
-            while(hasRight(right)){
-                right = right.getRight(right.key);
-            }
-            if(hasLeft(right)){
-                parent = right.getParent(right.key);
-                left = right.getLeft(right.key);
-                left.setParent(parent);
-                parent.setRight(left);
-            }
-            else{
-                parent = right.getParent(right.key);
-                parent.setRight(null);
-            }
-            right.setRight(index.getRight(index.key));
-            right.setLeft(index.getLeft(index.key));
-            (index.getLeft(index.key)).setParent(right);
-            (index.getRight(index.key)).setParent(right);
-            if (isRoot(index)){
-                setRoot(right);
-            }
-            else{ setChild(index, right);}
-            tree.remove(index);
-            elements--;
-            return true;
+    /**
+     * Returns the value associated with the parameter key.
+     *
+     * @param key key to lookup in the map
+     * @return Value associated with key or null if not found
+     */
+    public V getValue(K key){
+        Entry<K, V> temp = findEntry(key);
+        if (temp == null){ return null; }
+        return temp.value;
+    }
+
+    /**
+     * Returns the first key found with the parameter value.
+     *
+     * @param value value to locate
+     * @return key of first item found with the matching value
+     */
+    public K getKey(V value){
+        if (valueIndex != null){
+            return valueIndex.getKey(value);
         }
-        else if (hasLeft(left) || !hasLeft(left)){
-            right = index.getRight(index.key);
-            right.setParent(left);
-            left.setRight(right);
-            if (isRoot(index)){
-                setRoot(left);
+        for (InOrder walk = new InOrder(); walk.hasNext(); ){
+            Entry<K, V> entry = walk.next();
+            if (entry.value.equals(value)){
+                return entry.key;
             }
-            else { setChild(index, left);}
-            tree.remove(index);
-            elements--;
-            return true;
         }
-        else { return false; }
+        return null;
     }
 
-    private boolean rightChild (Entry<K, V> index){
-        Entry<K, V> right = index.getRight(index.key);
-        if (isRoot(index)){
-            setRoot(right);
+    /**
+     * Returns the largest key less than or equal to the parameter key.
+     *
+     * @param key key to search around
+     * @return the greatest key not above key, or null if there is none
+     */
+    public K floorKey(K key){
+        Entry<K, V> temp = getRoot();
+        K best = null;
+        while (temp != null){
+            int direction = key.compareTo(temp.key);
+            if (direction == 0){ return temp.key; }
+            else if (direction > 0){
+                best = temp.key;
+                temp = temp.getRight(temp.key);
+            }
+            else{ temp = temp.getLeft(temp.key); }
         }
-        else{ setChild(index, right);}
-        tree.remove(index);
-        elements--;
-        return true;
+        return best;
     }
 
-    private boolean leftChild (Entry<K, V> index){
-        Entry<K, V> left = index.getLeft(index.key);
-        if (isRoot(index)){
-            setRoot(left);
-        }
-        else {setChild(index, left);}
-        tree.remove(index);
-        elements--;
-        return true;
+    /**
+     * Returns the smallest key greater than or equal to the parameter key.
+     *
+     * @param key key to search around
+     * @return the least key not below key, or null if there is none
+     */
+    public K ceilingKey(K key){
+        Entry<K, V> temp = ceilingEntry(key);
+        return temp == null ? null : temp.key;
     }
 
-    private boolean noChild(Entry<K, V> index){
-        if (isRoot(index)){
-            tree.remove(index);
-            elements--;
-            return true;
+    /**
+     * Returns the smallest key in the map.
+     *
+     * @return the lowest key, or null if the map is empty
+     */
+    public K firstKey(){
+        Entry<K, V> temp = first(getRoot());
+        return temp == null ? null : temp.key;
+    }
+
+    /**
+     * Returns the largest key in the map.
+     *
+     * @return the highest key, or null if the map is empty
+     */
+    public K lastKey(){
+        Entry<K, V> temp = getRoot();
+        if (temp == null){ return null; }
+        while (hasRight(temp)){
+            temp = temp.getRight(temp.key);
         }
-        else{
-            Entry<K, V> parent = index.getParent(index.key);
-            if ((index.key).compareTo(parent.key) < 0){
-                parent.setLeft(null);
+        return temp.key;
+    }
+
+    /**
+     * Counts the keys strictly less than the parameter key, which need not
+     * be in the map. Uses the subtree sizes kept on each entry, so the cost
+     * is one walk down the tree.
+     *
+     * @param key key to rank
+     * @return number of keys below key
+     */
+    public int rank(K key){
+        Entry<K, V> temp = getRoot();
+        int below = 0;
+        while (temp != null){
+            int direction = key.compareTo(temp.key);
+            if (direction <= 0){
+                if (direction == 0){
+                    return below + size(temp.getLeft(temp.key));
+                }
+                temp = temp.getLeft(temp.key);
             }
             else{
-                parent.setRight(null);
+                below += 1 + size(temp.getLeft(temp.key));
+                temp = temp.getRight(temp.key);
             }
-            tree.remove(index);
-            elements--;
-            return true;
         }
+        return below;
     }
 
     /**
-     * Returns the value associated with the parameter key.
+     * Returns the key at the given position in sorted order, so that
+     * select(rank(k)) is k for every key k in the map.
      *
-     * @param key key to lookup in the map
-     * @return Value associated with key or null if not found
+     * @param index zero-based position among the sorted keys
+     * @return the key with exactly index keys below it
+     * @throws IndexOutOfBoundsException if index is negative or not less
+     *                                   than size()
      */
-    public V getValue(K key){
+    public K select(int index){
+        if (index < 0 || index >= elements){
+            throw new IndexOutOfBoundsException("Index: " + index + ", Size: " + elements);
+        }
         Entry<K, V> temp = getRoot();
-        boolean ready = false;
-        if (tree.isEmpty()){
-            ready = true;
-        }
-        while (!ready){
-            if ((key).compareTo(temp.key) > 0){
-                if (hasRight(temp)){
-                    temp = temp.getRight(temp.key);
-                }
-                else{ return null; }
+        while (true){
+            int left = size(temp.getLeft(temp.key));
+            if (index < left){
+                temp = temp.getLeft(temp.key);
             }
-            else if ((key).compareTo(temp.key) < 0){
-                if (hasLeft(temp)){
-                    temp = temp.getLeft(temp.key);
-                }
-                else{ return null; }
+            else if (index == left){
+                return temp.key;
+            }
+            else{
+                index -= left + 1;
+                temp = temp.getRight(temp.key);
             }
-            else if ((key).compareTo(temp.key) == 0){ return temp.value; }
-            else{ return null; }
         }
-        return null;
     }
 
     /**
-     * Returns the first key found with the parameter value.
+     * Provides a live view of the keys from fromKey, inclusive, up to
+     * toKey, exclusive. Reads and writes pass through to this tree, and
+     * iterating the view seeks to fromKey and stops at toKey, so a scan
+     * costs one descent plus the entries it visits.
      *
-     * @param value value to locate
-     * @return key of first item found with the matching value
+     * @param fromKey lowest key in the view
+     * @param toKey   key just past the view
+     * @return the bounded view
      */
-    public K getKey(V value){
-        for(int i=0; i < tree.size(); i++){
-            if (tree.get(i).value.equals(value)){
-                return tree.get(i).key;
-            }
+    public NavigableMapADT<K, V> subMap(K fromKey, K toKey){
+        if (fromKey.compareTo(toKey) > 0){
+            throw new IllegalArgumentException("fromKey > toKey");
         }
-        return null;
+        return new RangeView<>(this, new Ranges(), fromKey, toKey);
+    }
+
+    /**
+     * Provides a live view of the keys strictly below toKey.
+     *
+     * @param toKey key just past the view
+     * @return the bounded view
+     */
+    public NavigableMapADT<K, V> headMap(K toKey){
+        return new RangeView<>(this, new Ranges(), null, toKey);
+    }
+
+    /**
+     * Provides a live view of the keys from fromKey upward.
+     *
+     * @param fromKey lowest key in the view
+     * @return the bounded view
+     */
+    public NavigableMapADT<K, V> tailMap(K fromKey){
+        return new RangeView<>(this, new Ranges(), fromKey, null);
     }
 
     /**
@@ -287,53 +408,256 @@ public class BinarySearchTree<K extends Comparable<K>,V> implements MapADT<K,V>
      * Resets the map to an empty state with no entries.
      */
     public void clear(){
-        tree = new LinkedList<>();
+        root = null;
         elements = 0;
+        modCount++;
+        if (valueIndex != null){
+            valueIndex.clear();
+        }
     }
+
     /**
-     * Provides a key iterator.
-     * @return Iterator over the keys (some data structures provided sorted)
+     * Adds every entry of other to this tree in time linear in the size of
+     * both, replacing values for keys the trees share. Both trees are
+     * flattened in key order, merged, and rebuilt balanced, so the result
+     * is never deeper than it needs to be. The other tree is left as it
+     * was.
+     *
+     * @param other tree whose entries to add
      */
+    public void merge(BinarySearchTree<K, V> other){
+        if (other == this || other.elements == 0){
+            return;
+        }
+        List<K> keys = new ArrayList<>(elements + other.elements);
+        List<V> values = new ArrayList<>(elements + other.elements);
+        Iterator<Entry<K, V>> mine = new InOrder();
+        Iterator<Entry<K, V>> theirs = other.new InOrder();
+        Entry<K, V> left = mine.hasNext() ? mine.next() : null;
+        Entry<K, V> right = theirs.next();
+        while (left != null || right != null){
+            int direction = (left == null) ? 1 : (right == null) ? -1
+                    : left.key.compareTo(right.key);
+            if (direction < 0){
+                keys.add(left.key);
+                values.add(left.value);
+                left = mine.hasNext() ? mine.next() : null;
+                continue;
+            }
+            keys.add(right.key);
+            values.add(right.value);
+            if (valueIndex != null){
+                if (direction == 0){ valueIndex.update(right.key, left.value, right.value); }
+                else{ valueIndex.add(right.key, right.value); }
+            }
+            if (direction == 0){
+                left = mine.hasNext() ? mine.next() : null;
+            }
+            right = theirs.hasNext() ? theirs.next() : null;
+        }
+        root = new Builder(keys.iterator(), values.iterator()).build(keys.size());
+        elements = keys.size();
+        modCount++;
+    }
 
-    private K keyHelp(int i){
-        LinkedList<Entry<K, V>> temp = tree;
-        for (int out = temp.size()-1; out > 0; out--){
-            for (int in = 0; in < out; in++){
-                if ((temp.get(in).key).compareTo(temp.get(in+1).key) > 0){
-                    Entry<K, V> entry = temp.get(in);
-                    temp.set(in, temp.get(in+1));
-                    temp.set(in+1, entry);
+    /**
+     * Adds a batch of key/value pairs with one merged descent. The batch is
+     * sorted, then split at each node it passes, so every node on the way
+     * is compared against once per batch rather than once per key. Keys
+     * that land in the same empty spot are attached there as a balanced
+     * subtree. When a key repeats within the batch its last value wins.
+     *
+     * @param keys   keys to add
+     * @param values values to associate with the keys, in the same order
+     * @throws IllegalArgumentException if the lists differ in length
+     */
+    @Override
+    public void addAll(List<K> keys, List<V> values){
+        if (keys.size() != values.size()){
+            throw new IllegalArgumentException("Key and value counts differ");
+        }
+        List<K> sortedKeys = new ArrayList<>(keys.size());
+        List<V> sortedValues = new ArrayList<>(keys.size());
+        for (int i : sortedOrder(keys)){
+            int last = sortedKeys.size() - 1;
+            if (last >= 0 && sortedKeys.get(last).compareTo(keys.get(i)) == 0){
+                sortedValues.set(last, values.get(i));
+            }
+            else{
+                sortedKeys.add(keys.get(i));
+                sortedValues.add(values.get(i));
+            }
+        }
+        int added = 0;
+        Deque<Span<K, V>> pending = new ArrayDeque<>();
+        List<Entry<K, V>> visited = new ArrayList<>();
+        if (root == null){
+            root = attach(null, sortedKeys, sortedValues, 0, sortedKeys.size());
+            added = sortedKeys.size();
+        }
+        else{
+            pending.push(new Span<>(root, 0, sortedKeys.size()));
+        }
+        while (!pending.isEmpty()){
+            Span<K, V> span = pending.pop();
+            Entry<K, V> node = span.node;
+            visited.add(node);
+            int split = lowerBound(sortedKeys, span.lo, span.hi, node.key);
+            int above = split;
+            if (split < span.hi && sortedKeys.get(split).compareTo(node.key) == 0){
+                V value = sortedValues.get(split);
+                if (valueIndex != null){
+                    valueIndex.update(node.key, node.value, value);
                 }
+                node.value = value;
+                above = split + 1;
             }
+            if (span.lo < split){
+                if (node.getLeft(node.key) == null){
+                    node.setLeft(attach(node, sortedKeys, sortedValues, span.lo, split));
+                    added += split - span.lo;
+                }
+                else{ pending.push(new Span<>(node.getLeft(node.key), span.lo, split)); }
+            }
+            if (above < span.hi){
+                if (node.getRight(node.key) == null){
+                    node.setRight(attach(node, sortedKeys, sortedValues, above, span.hi));
+                    added += span.hi - above;
+                }
+                else{ pending.push(new Span<>(node.getRight(node.key), above, span.hi)); }
+            }
+        }
+        // Children were visited after their parents, so walking backwards
+        // settles every subtree size before the sizes above it.
+        for (int i = visited.size() - 1; i >= 0; i--){
+            Entry<K, V> node = visited.get(i);
+            node.size = 1 + size(node.getLeft(node.key)) + size(node.getRight(node.key));
+        }
+        if (added > 0){
+            elements += added;
+            modCount++;
         }
-        return temp.get(i).key;
     }
 
-    private V valueHelp(int i){
-        LinkedList<Entry<K, V>> temp = tree;
-        for (int out = temp.size()-1; out > 0; out--){
-            for (int in = 0; in < out; in++){
-                if ((temp.get(in).key).compareTo(temp.get(in+1).key) > 0){
-                    Entry<K, V> entry = temp.get(in);
-                    temp.set(in, temp.get(in+1));
-                    temp.set(in+1, entry);
+    /**
+     * Looks up a batch of keys with one merged descent, so nodes shared by
+     * the search paths of several keys are only visited once.
+     *
+     * @param keys keys to look up
+     * @return the value for each key in the same order, null where absent
+     */
+    @Override
+    public List<V> getAll(List<K> keys){
+        Object[] found = new Object[keys.size()];
+        int[] order = sortedOrder(keys);
+        List<K> sortedKeys = new ArrayList<>(order.length);
+        for (int i : order){
+            sortedKeys.add(keys.get(i));
+        }
+        Deque<Span<K, V>> pending = new ArrayDeque<>();
+        if (root != null && order.length > 0){
+            pending.push(new Span<>(root, 0, order.length));
+        }
+        while (!pending.isEmpty()){
+            Span<K, V> span = pending.pop();
+            Entry<K, V> node = span.node;
+            int split = lowerBound(sortedKeys, span.lo, span.hi, node.key);
+            int above = split;
+            while (above < span.hi && sortedKeys.get(above).compareTo(node.key) == 0){
+                found[order[above++]] = node.value;
+            }
+            if (span.lo < split && node.getLeft(node.key) != null){
+                pending.push(new Span<>(node.getLeft(node.key), span.lo, split));
+            }
+            if (above < span.hi && node.getRight(node.key) != null){
+                pending.push(new Span<>(node.getRight(node.key), above, span.hi));
+            }
+        }
+        @SuppressWarnings("unchecked")
+        List<V> result = (List<V>) Arrays.asList(found);
+        return result;
+    }
+
+    /**
+     * Removes a batch of keys. A batch that is large next to the tree is
+     * applied by flattening the tree in key order, dropping the batch's
+     * keys and rebuilding balanced in linear time; a small one is deleted
+     * key by key in sorted order.
+     *
+     * @param keys keys to remove
+     * @return how many of the keys were present and removed
+     */
+    @Override
+    public int deleteAll(List<K> keys){
+        int[] order = sortedOrder(keys);
+        if ((long) keys.size() * 16 < elements){
+            int removed = 0;
+            for (int i : order){
+                if (delete(keys.get(i))){
+                    removed++;
+                }
+            }
+            return removed;
+        }
+        List<K> kept = new ArrayList<>(elements);
+        List<V> keptValues = new ArrayList<>(elements);
+        int next = 0;
+        for (InOrder walk = new InOrder(); walk.hasNext(); ){
+            Entry<K, V> entry = walk.next();
+            while (next < order.length && keys.get(order[next]).compareTo(entry.key) < 0){
+                next++;
+            }
+            if (next < order.length && keys.get(order[next]).compareTo(entry.key) == 0){
+                if (valueIndex != null){
+                    valueIndex.remove(entry.key, entry.value);
                 }
+                continue;
             }
+            kept.add(entry.key);
+            keptValues.add(entry.value);
         }
-        return temp.get(i).value;
+        int removed = elements - kept.size();
+        if (removed > 0){
+            root = new Builder(kept.iterator(), keptValues.iterator()).build(kept.size());
+            elements = kept.size();
+            modCount++;
+        }
+        return removed;
     }
 
+    /**
+     * Turns on a reverse index from values to keys so getKey no longer scans
+     * every entry, or turns it off again. Entries already present are
+     * indexed in key order.
+     *
+     * @param policy which key getKey reports for shared values, or null to
+     *               drop the index
+     */
+    public void setValueIndex(ValueIndex.Policy policy){
+        if (policy == null){
+            valueIndex = null;
+            return;
+        }
+        ValueIndex<K, V> index = new ValueIndex<>(policy);
+        for (InOrder walk = new InOrder(); walk.hasNext(); ){
+            Entry<K, V> entry = walk.next();
+            index.add(entry.key, entry.value);
+        }
+        valueIndex = index;
+    }
 
+    /**
+     * Provides a key iterator.
+     * @return Iterator over the keys (some data structures provided sorted)
+     */
     public Iterator<K> keys(){
+        InOrder walk = new InOrder();
         return new Iterator<K>() {
-            int curr = 0;
             @Override
-            public boolean hasNext() {
-                return (curr < tree.size());
-            }
+            public boolean hasNext() { return walk.hasNext(); }
 
             @Override
-            public K next() { return keyHelp(curr++); }
+            public K next() { return walk.next().key; }
         };
     }
 
@@ -343,72 +667,358 @@ public class BinarySearchTree<K extends Comparable<K>,V> implements MapADT<K,V>
      * @return Iterator over the values.
      */
     public Iterator<V> values(){
+        InOrder walk = new InOrder();
         return new Iterator<V>() {
-            int curr = 0;
             @Override
-            public boolean hasNext() { return (curr < tree.size()); }
+            public boolean hasNext() { return walk.hasNext(); }
 
             @Override
-            public V next() { return valueHelp(curr++); }
+            public V next() { return walk.next().value; }
         };
     }
 
-    private V place (Entry<K, V> entry){
-        Entry<K, V> temp = root;
-        boolean ready = false;
-        while (!ready){
-            if ((entry.key).compareTo(temp.key) == 0) {
-                return entry.value;
+    /**
+     * Provides a key spliterator that splits the tree at its subtree roots,
+     * so parallel streams divide the keys without copying them.
+     * @return Spliterator over the keys in sorted order
+     */
+    @Override
+    public Spliterator<K> keySpliterator(){
+        return new TreeSpliterator<>(entry -> entry.key, Spliterator.DISTINCT
+                | Spliterator.SORTED | Spliterator.NONNULL);
+    }
+
+    /**
+     * Provides a value spliterator in key order.
+     * @return Spliterator over the values
+     */
+    @Override
+    public Spliterator<V> valueSpliterator(){
+        return new TreeSpliterator<>(entry -> entry.value, 0);
+    }
+
+    /**
+     * Walks the tree in key order by following parent pointers, so each step
+     * costs constant amortized time and allocates nothing. Any structural
+     * change to the tree makes the next call fail.
+     */
+    private final class InOrder implements Iterator<Entry<K, V>> {
+        final int expectedModCount = modCount;
+        final K fence;
+        Entry<K, V> next;
+
+        InOrder() {
+            this(first(root), null);
+        }
+
+        /**
+         * Walks from start up to, but not including, the fence key. A null
+         * fence runs to the end of the tree.
+         */
+        InOrder(Entry<K, V> start, K fence) {
+            this.fence = fence;
+            next = (start != null && fence != null && start.key.compareTo(fence) >= 0)
+                    ? null : start;
+        }
+
+        @Override
+        public boolean hasNext() { return next != null; }
+
+        @Override
+        public Entry<K, V> next() {
+            if (modCount != expectedModCount){
+                throw new ConcurrentModificationException();
             }
-            else if ((entry.key).compareTo(temp.key) > 0){
-                if (hasRight(temp)){
-                    temp = (temp.getRight(temp.key));
-                }
-                else{
-                    temp.setRight(entry);
-                    entry.setParent(temp);
-                    return entry.value;
-                }
+            if (next == null){
+                throw new NoSuchElementException();
             }
-            else if ((entry.key).compareTo(temp.key) < 0){
-                if (hasLeft(temp)){
-                    temp = (temp.getLeft(temp.key));
-                }
-                else{
-                    temp.setLeft(entry);
-                    entry.setParent(temp);
-                    return entry.value;
-                }
+            Entry<K, V> entry = next;
+            next = successor(entry);
+            if (next != null && fence != null && next.key.compareTo(fence) >= 0){
+                next = null;
             }
-            else{
+            return entry;
+        }
+    }
+
+    /**
+     * Covers the entries from current up to, but not including, fence. The
+     * first split hands off everything left of the root; later splits hand
+     * off the left part of the remaining subtree, the way TreeMap does.
+     */
+    private final class TreeSpliterator<T> implements Spliterator<T> {
+        final Function<Entry<K, V>, T> extract;
+        final int characteristics;
+        final int expectedModCount = modCount;
+        Entry<K, V> current;
+        Entry<K, V> fence;
+        int side;
+        long estimate;
+
+        TreeSpliterator(Function<Entry<K, V>, T> extract, int characteristics){
+            this(extract, characteristics, first(root), null, 0, elements);
+        }
+
+        TreeSpliterator(Function<Entry<K, V>, T> extract, int characteristics,
+                        Entry<K, V> current, Entry<K, V> fence, int side, long estimate){
+            this.extract = extract;
+            this.characteristics = characteristics;
+            this.current = current;
+            this.fence = fence;
+            this.side = side;
+            this.estimate = estimate;
+        }
+
+        @Override
+        public boolean tryAdvance(Consumer<? super T> action){
+            if (current == null || current == fence){
+                return false;
+            }
+            Entry<K, V> entry = current;
+            current = successor(entry);
+            action.accept(extract.apply(entry));
+            if (modCount != expectedModCount){
+                throw new ConcurrentModificationException();
+            }
+            return true;
+        }
+
+        @Override
+        public Spliterator<T> trySplit(){
+            Entry<K, V> split = (current == null || current == fence) ? null
+                    : (side == 0) ? root
+                    : (side > 0) ? current.getRight(current.key)
+                    : (fence != null) ? fence.getLeft(fence.key)
+                    : null;
+            if (split != null && split != current && split != fence
+                    && current.key.compareTo(split.key) < 0){
+                side = 1;
+                estimate >>>= 1;
+                TreeSpliterator<T> prefix = new TreeSpliterator<>(extract,
+                        characteristics, current, split, -1, estimate);
+                current = split;
+                return prefix;
+            }
+            return null;
+        }
+
+        @Override
+        public long estimateSize(){ return estimate; }
+
+        @Override
+        public int characteristics(){
+            return (side == 0 ? Spliterator.SIZED : 0) | Spliterator.ORDERED
+                    | characteristics;
+        }
+
+        @Override
+        public Comparator<? super T> getComparator(){
+            if ((characteristics & Spliterator.SORTED) != 0){
                 return null;
             }
+            throw new IllegalStateException();
         }
-        return null;
     }
 
-    private boolean findKey(K key){
-        if (getRoot() != null){
-            Entry<K, V> find = getRoot();
-            boolean ready = false;
-            while (!ready){
-                if ((key).compareTo(find.key) == 0){ return true; }
-                else if ((key).compareTo(find.key) > 0){
-                    if (hasRight(find)) {
-                        find = find.getRight(find.key);
-                    }
-                    else{ return false; }
-                }
-                else if ((key).compareTo(find.key) < 0){
-                    if (hasLeft(find)){
-                        find = find.getLeft(find.key);
-                    }
-                    else{ return false; }
-                }
-                else{ return false; }
+    /**
+     * Hands RangeView its walks over this tree: one descent to the first
+     * entry at or above from, then successor steps up to the fence.
+     */
+    private final class Ranges implements RangeView.Walks<K, V> {
+        @Override
+        public Iterator<K> keys(K from, K fence){
+            InOrder walk = walk(from, fence);
+            return new Iterator<K>() {
+                @Override
+                public boolean hasNext() { return walk.hasNext(); }
+
+                @Override
+                public K next() { return walk.next().key; }
+            };
+        }
+
+        @Override
+        public Iterator<V> values(K from, K fence){
+            InOrder walk = walk(from, fence);
+            return new Iterator<V>() {
+                @Override
+                public boolean hasNext() { return walk.hasNext(); }
+
+                @Override
+                public V next() { return walk.next().value; }
+            };
+        }
+
+        private InOrder walk(K from, K fence){
+            return new InOrder(from == null ? first(root) : ceilingEntry(from), fence);
+        }
+    }
+
+    /**
+     * Lays sorted entries out as a balanced tree: the left half, the
+     * middle entry, then the right half, taking entries in order so the
+     * input is read exactly once.
+     */
+    private final class Builder {
+        final Iterator<K> keys;
+        final Iterator<V> values;
+        K previous;
+
+        Builder(Iterator<K> keys, Iterator<V> values){
+            this.keys = keys;
+            this.values = values;
+        }
+
+        Entry<K, V> build(int count){
+            if (count == 0){ return null; }
+            int leftCount = (count - 1) / 2;
+            Entry<K, V> left = build(leftCount);
+            if (!keys.hasNext() || !values.hasNext()){
+                throw new IllegalArgumentException("Fewer entries than count");
+            }
+            K key = keys.next();
+            if (previous != null && previous.compareTo(key) >= 0){
+                throw new IllegalArgumentException("Keys not strictly increasing at " + key);
             }
+            previous = key;
+            Entry<K, V> entry = new Entry<>(key, values.next());
+            Entry<K, V> right = build(count - leftCount - 1);
+            entry.setLeft(left);
+            entry.setRight(right);
+            if (left != null){ left.setParent(entry); }
+            if (right != null){ right.setParent(entry); }
+            entry.size = count;
+            return entry;
         }
-        return false;
+    }
+
+    /**
+     * A subtree paired with the slice of a sorted batch that falls inside
+     * it, for the merged batch descents.
+     */
+    private static final class Span<K, V> {
+        final Entry<K, V> node;
+        final int lo;
+        final int hi;
+
+        Span(Entry<K, V> node, int lo, int hi){
+            this.node = node;
+            this.lo = lo;
+            this.hi = hi;
+        }
+    }
+
+    /**
+     * Builds a balanced subtree from a slice of sorted, distinct batch keys
+     * and hangs it below parent, indexing its values if needed.
+     */
+    private Entry<K, V> attach(Entry<K, V> parent, List<K> keys, List<V> values, int lo, int hi){
+        Entry<K, V> subtree = new Builder(keys.subList(lo, hi).iterator(),
+                values.subList(lo, hi).iterator()).build(hi - lo);
+        if (subtree != null){
+            subtree.setParent(parent);
+        }
+        if (valueIndex != null){
+            for (int i = lo; i < hi; i++){
+                valueIndex.add(keys.get(i), values.get(i));
+            }
+        }
+        return subtree;
+    }
+
+    /**
+     * Batch positions ordered by key; equal keys keep their batch order.
+     * A batch that already arrives sorted is returned as is.
+     */
+    private static <K extends Comparable<K>> int[] sortedOrder(List<K> keys){
+        int[] positions = new int[keys.size()];
+        boolean sorted = true;
+        for (int i = 0; i < positions.length; i++){
+            positions[i] = i;
+            if (sorted && i > 0 && keys.get(i - 1).compareTo(keys.get(i)) > 0){
+                sorted = false;
+            }
+        }
+        if (sorted){
+            return positions;
+        }
+        List<Entry<K, Integer>> tagged = new ArrayList<>(positions.length);
+        for (int i = 0; i < positions.length; i++){
+            tagged.add(new Entry<>(keys.get(i), i));
+        }
+        tagged.sort((a, b) -> a.key.compareTo(b.key));
+        for (int i = 0; i < positions.length; i++){
+            positions[i] = tagged.get(i).value;
+        }
+        return positions;
+    }
+
+    /**
+     * First index in lo..hi of the sorted keys that is not below key.
+     */
+    private static <K extends Comparable<K>> int lowerBound(List<K> keys, int lo, int hi, K key){
+        while (lo < hi){
+            int mid = (lo + hi) >>> 1;
+            if (keys.get(mid).compareTo(key) < 0){ lo = mid + 1; }
+            else{ hi = mid; }
+        }
+        return lo;
+    }
+
+    private Entry<K, V> ceilingEntry(K key){
+        Entry<K, V> temp = getRoot();
+        Entry<K, V> best = null;
+        while (temp != null){
+            int direction = key.compareTo(temp.key);
+            if (direction == 0){ return temp; }
+            else if (direction < 0){
+                best = temp;
+                temp = temp.getLeft(temp.key);
+            }
+            else{ temp = temp.getRight(temp.key); }
+        }
+        return best;
+    }
+
+    private Entry<K, V> first(Entry<K, V> entry){
+        if (entry == null || elements == 0){
+            return null;
+        }
+        while (hasLeft(entry)){
+            entry = entry.getLeft(entry.key);
+        }
+        return entry;
+    }
+
+    private Entry<K, V> successor(Entry<K, V> entry){
+        if (hasRight(entry)){
+            return first(entry.getRight(entry.key));
+        }
+        Entry<K, V> parent = entry.getParent(entry.key);
+        while (parent != null && entry == parent.getRight(parent.key)){
+            entry = parent;
+            parent = parent.getParent(parent.key);
+        }
+        return parent;
+    }
+
+    private Entry<K, V> findEntry(K key){
+        Entry<K, V> find = getRoot();
+        while (find != null){
+            int direction = key.compareTo(find.key);
+            if (direction == 0){ return find; }
+            else if (direction > 0){
+                find = find.getRight(find.key);
+            }
+            else{
+                find = find.getLeft(find.key);
+            }
+        }
+        return null;
+    }
+
+    private static int size(Entry<?, ?> entry){
+        return entry == null ? 0 : entry.size;
     }
 
     private boolean hasRight (Entry<K, V> entry){
@@ -425,15 +1035,6 @@ public class BinarySearchTree<K extends Comparable<K>,V> implements MapADT<K,V>
         else{ return true;}
     }
 
-    private int getIndex(K key){
-        for(int i = 0; i < tree.size(); i++){
-            if (key.equals(tree.get(i).key)){
-                return i;
-            }
-        }
-        return -1;
-    }
-
     private void setRoot(Entry<K, V> entry){
         entry.setParent(null);
         root = entry;
@@ -0,0 +1,485 @@
+package edu.sdsu.cs.datastructures;
+
+import java.util.Iterator;
+import java.util.NoSuchElementException;
+import java.util.Objects;
+import java.util.concurrent.atomic.AtomicReferenceArray;
+import java.util.concurrent.atomic.LongAdder;
+import java.util.concurrent.locks.ReentrantLock;
+import java.util.function.BiFunction;
+import java.util.function.Function;
+
+/**
+ * A thread-safe hash table split into independently locked segments.
+ * <p>Each key hashes to one segment, and writers only lock that segment, so
+ * writers to different segments proceed in parallel. Readers take no locks
+ * at all: bins are published through an atomic array and chain links and
+ * values are volatile, so a reader always sees a consistent chain even
+ * while a writer is changing or resizing the segment. The entry count is a
+ * LongAdder, so updating it does not serialize writers either.
+ * </p>
+ * <p>The key and value iterators are weakly consistent. They never throw
+ * ConcurrentModificationException and reflect some state of each segment
+ * at or after their creation. Null keys and values are not permitted, so a
+ * null from getValue always means the key is absent.
+ * </p>
+ *
+ * @param <K> key type, must support comparison with like-type objects
+ * @param <V> value type
+ */
+public class ConcurrentHashTable<K extends Comparable<K>, V> implements MapADT<K, V> {
+
+    private static final int DEFAULT_SEGMENTS = 16;
+    private static final int DEFAULT_BINS = 4;
+    private static final double MAX_LOAD = .75;
+
+    private final Segment<K, V>[] segments;
+    private final int segmentShift;
+    private final LongAdder currSize = new LongAdder();
+
+    static final class Node<K, V> {
+        final K key;
+        final int hash;
+        volatile V value;
+        volatile Node<K, V> next;
+
+        Node(K key, int hash, V value, Node<K, V> next) {
+            this.key = key;
+            this.hash = hash;
+            this.value = value;
+            this.next = next;
+        }
+    }
+
+    static final class Segment<K, V> extends ReentrantLock {
+        private static final long serialVersionUID = 1L;
+
+        volatile AtomicReferenceArray<Node<K, V>> table;
+        int count;
+
+        Segment(int bins) {
+            table = new AtomicReferenceArray<>(bins);
+        }
+
+        Node<K, V> find(K key, int hash) {
+            AtomicReferenceArray<Node<K, V>> bins = table;
+            Node<K, V> node = bins.get(hash & (bins.length() - 1));
+            while (node != null) {
+                if (node.hash == hash && node.key.equals(key)) {
+                    return node;
+                }
+                node = node.next;
+            }
+            return null;
+        }
+
+        /**
+         * Links a new node at the head of its bin. Caller holds the lock.
+         */
+        void link(K key, int hash, V value) {
+            AtomicReferenceArray<Node<K, V>> bins = table;
+            if (count + 1 > MAX_LOAD * bins.length()) {
+                bins = rehash(bins);
+            }
+            int index = hash & (bins.length() - 1);
+            bins.set(index, new Node<>(key, hash, value, bins.get(index)));
+            count++;
+        }
+
+        /**
+         * Unlinks the node holding the key. Readers walking the chain either
+         * still see the node or skip straight past it. Caller holds the lock.
+         */
+        boolean unlink(K key, int hash) {
+            AtomicReferenceArray<Node<K, V>> bins = table;
+            int index = hash & (bins.length() - 1);
+            Node<K, V> prev = null;
+            Node<K, V> node = bins.get(index);
+            while (node != null) {
+                if (node.hash == hash && node.key.equals(key)) {
+                    if (prev == null) {
+                        bins.set(index, node.next);
+                    }
+                    else {
+                        prev.next = node.next;
+                    }
+                    count--;
+                    return true;
+                }
+                prev = node;
+                node = node.next;
+            }
+            return false;
+        }
+
+        /**
+         * Copies every chain into a table twice the size and publishes it.
+         * Readers still holding the old table keep walking intact chains.
+         */
+        private AtomicReferenceArray<Node<K, V>> rehash(AtomicReferenceArray<Node<K, V>> old) {
+            AtomicReferenceArray<Node<K, V>> bins = new AtomicReferenceArray<>(old.length() * 2);
+            int mask = bins.length() - 1;
+            for (int i = 0; i < old.length(); i++) {
+                for (Node<K, V> node = old.get(i); node != null; node = node.next) {
+                    int index = node.hash & mask;
+                    bins.set(index, new Node<>(node.key, node.hash, node.value, bins.get(index)));
+                }
+            }
+            table = bins;
+            return bins;
+        }
+    }
+
+    public ConcurrentHashTable() {
+        this(DEFAULT_SEGMENTS);
+    }
+
+    /**
+     * Builds a table with at least the given number of lock stripes.
+     *
+     * @param concurrency expected number of concurrently writing threads
+     */
+    public ConcurrentHashTable(int concurrency) {
+        int count = 1;
+        int shift = 0;
+        while (count < concurrency && count < (1 << 16)) {
+            count <<= 1;
+            shift++;
+        }
+        segmentShift = 32 - shift;
+        @SuppressWarnings("unchecked")
+        Segment<K, V>[] table = (Segment<K, V>[]) new Segment<?, ?>[count];
+        segments = table;
+        for (int i = 0; i < count; i++) {
+            segments[i] = new Segment<>(DEFAULT_BINS);
+        }
+    }
+
+    /**
+     * Returns true if the map has an object for the corresponding key.
+     *
+     * @param key object to search for
+     * @return true if within map, false otherwise
+     */
+    public boolean contains(K key) {
+        int hash = spread(key.hashCode());
+        return segmentFor(hash).find(key, hash) != null;
+    }
+
+    /**
+     * Adds the given key/value pair to the map.
+     *
+     * @param key   Key to add to the map
+     * @param value Corresponding value to associate with the key
+     * @return the previous value associated with this key or null if new
+     */
+    public V add(K key, V value) {
+        Objects.requireNonNull(value);
+        int hash = spread(key.hashCode());
+        Segment<K, V> segment = segmentFor(hash);
+        segment.lock();
+        try {
+            Node<K, V> node = segment.find(key, hash);
+            if (node != null) {
+                V old = node.value;
+                node.value = value;
+                return old;
+            }
+            segment.link(key, hash, value);
+        }
+        finally {
+            segment.unlock();
+        }
+        currSize.increment();
+        return null;
+    }
+
+    /**
+     * Removes the key/value pair identified by the key parameter from the map.
+     *
+     * @param key item to remove
+     * @return true if removed, false if not found or unable to remove
+     */
+    public boolean delete(K key) {
+        int hash = spread(key.hashCode());
+        Segment<K, V> segment = segmentFor(hash);
+        boolean removed;
+        segment.lock();
+        try {
+            removed = segment.unlink(key, hash);
+        }
+        finally {
+            segment.unlock();
+        }
+        if (removed) {
+            currSize.decrement();
+        }
+        return removed;
+    }
+
+    /**
+     * Returns the value associated with the parameter key.
+     *
+     * @param key key to lookup in the map
+     * @return Value associated with key or null if not found
+     */
+    public V getValue(K key) {
+        int hash = spread(key.hashCode());
+        Node<K, V> node = segmentFor(hash).find(key, hash);
+        return node == null ? null : node.value;
+    }
+
+    /**
+     * Adds the given key/value pair only if the key is not already mapped.
+     * The check and the insertion happen atomically.
+     *
+     * @param key   Key to add to the map
+     * @param value Value to associate with the key if absent
+     * @return the existing value associated with this key or null if new
+     */
+    @Override
+    public V putIfAbsent(K key, V value) {
+        Objects.requireNonNull(value);
+        int hash = spread(key.hashCode());
+        Segment<K, V> segment = segmentFor(hash);
+        segment.lock();
+        try {
+            Node<K, V> node = segment.find(key, hash);
+            if (node != null) {
+                return node.value;
+            }
+            segment.link(key, hash, value);
+        }
+        finally {
+            segment.unlock();
+        }
+        currSize.increment();
+        return null;
+    }
+
+    /**
+     * Returns the value for the key, computing and adding it first if absent.
+     * The function runs at most once per call, under the segment lock.
+     *
+     * @param key      key to lookup in the map
+     * @param function computes the value to add when the key is absent
+     * @return the existing or newly computed value, null if none computed
+     */
+    @Override
+    public V computeIfAbsent(K key, Function<? super K, ? extends V> function) {
+        int hash = spread(key.hashCode());
+        Segment<K, V> segment = segmentFor(hash);
+        Node<K, V> node = segment.find(key, hash);
+        if (node != null) {
+            return node.value;
+        }
+        V value;
+        segment.lock();
+        try {
+            node = segment.find(key, hash);
+            if (node != null) {
+                return node.value;
+            }
+            value = function.apply(key);
+            if (value == null) {
+                return null;
+            }
+            segment.link(key, hash, value);
+        }
+        finally {
+            segment.unlock();
+        }
+        currSize.increment();
+        return value;
+    }
+
+    /**
+     * Adds the value if the key is absent, otherwise replaces the current
+     * value with the result of combining it with the parameter value. A null
+     * combination removes the key. The whole update happens atomically.
+     *
+     * @param key      key to update in the map
+     * @param value    value to add or combine with the existing one
+     * @param function combines the existing value with the parameter value
+     * @return the new value associated with the key, or null if removed
+     */
+    @Override
+    public V merge(K key, V value, BiFunction<? super V, ? super V, ? extends V> function) {
+        Objects.requireNonNull(value);
+        int hash = spread(key.hashCode());
+        Segment<K, V> segment = segmentFor(hash);
+        int delta = 0;
+        V updated;
+        segment.lock();
+        try {
+            Node<K, V> node = segment.find(key, hash);
+            if (node == null) {
+                segment.link(key, hash, value);
+                delta = 1;
+                updated = value;
+            }
+            else {
+                updated = function.apply(node.value, value);
+                if (updated == null) {
+                    segment.unlink(key, hash);
+                    delta = -1;
+                }
+                else {
+                    node.value = updated;
+                }
+            }
+        }
+        finally {
+            segment.unlock();
+        }
+        currSize.add(delta);
+        return updated;
+    }
+
+    /**
+     * Returns the first key found with the parameter value.
+     *
+     * @param value value to locate
+     * @return key of first item found with the matching value
+     */
+    public K getKey(V value) {
+        for (Iterator<Node<K, V>> nodes = new NodeIterator(); nodes.hasNext(); ) {
+            Node<K, V> node = nodes.next();
+            if (node.value.equals(value)) {
+                return node.key;
+            }
+        }
+        return null;
+    }
+
+    /**
+     * Identifies the maxSize of the map. Under concurrent updates this is
+     * an estimate rather than an exact snapshot.
+     *
+     * @return Number of entries stored in the map.
+     */
+    public int size() {
+        long sum = currSize.sum();
+        return sum > Integer.MAX_VALUE ? Integer.MAX_VALUE : (int) Math.max(sum, 0);
+    }
+
+    /**
+     * Indicates if the map contains nothing.
+     *
+     * @return true if the map is empty, as the method cryptically indicates.
+     */
+    public boolean isEmpty() {
+        return size() == 0;
+    }
+
+    /**
+     * Resets the map to an empty state with no entries.
+     */
+    public void clear() {
+        for (Segment<K, V> segment : segments) {
+            segment.lock();
+            try {
+                segment.table = new AtomicReferenceArray<>(DEFAULT_BINS);
+                currSize.add(-segment.count);
+                segment.count = 0;
+            }
+            finally {
+                segment.unlock();
+            }
+        }
+    }
+
+    /**
+     * Provides a key iterator.
+     *
+     * @return Iterator over the keys (some data structures provided sorted)
+     */
+    public Iterator<K> keys() {
+        NodeIterator nodes = new NodeIterator();
+        return new Iterator<K>() {
+            @Override
+            public boolean hasNext() {
+                return nodes.hasNext();
+            }
+
+            @Override
+            public K next() {
+                return nodes.next().key;
+            }
+        };
+    }
+
+    /**
+     * Provides a value iterator. The values arrive corresponding to their
+     * keys in the key order, as long as no writer changes the table between
+     * the two traversals.
+     *
+     * @return Iterator over the values.
+     */
+    public Iterator<V> values() {
+        NodeIterator nodes = new NodeIterator();
+        return new Iterator<V>() {
+            @Override
+            public boolean hasNext() {
+                return nodes.hasNext();
+            }
+
+            @Override
+            public V next() {
+                return nodes.next().value;
+            }
+        };
+    }
+
+    private final class NodeIterator implements Iterator<Node<K, V>> {
+        int segment = 0;
+        int bin = -1;
+        AtomicReferenceArray<Node<K, V>> table;
+        Node<K, V> next;
+
+        NodeIterator() {
+            table = segments[0].table;
+            advance();
+        }
+
+        private void advance() {
+            if (next != null) {
+                next = next.next;
+            }
+            while (next == null) {
+                if (++bin >= table.length()) {
+                    if (++segment >= segments.length) {
+                        return;
+                    }
+                    table = segments[segment].table;
+                    bin = 0;
+                }
+                next = table.get(bin);
+            }
+        }
+
+        @Override
+        public boolean hasNext() {
+            return next != null;
+        }
+
+        @Override
+        public Node<K, V> next() {
+            if (next == null) {
+                throw new NoSuchElementException();
+            }
+            Node<K, V> node = next;
+            advance();
+            return node;
+        }
+    }
+
+    private Segment<K, V> segmentFor(int hash) {
+        return segments.length == 1 ? segments[0] : segments[hash >>> segmentShift];
+    }
+
+    private static int spread(int h) {
+        h ^= (h >>> 16);
+        return h * 0x9E3779B9;
+    }
+}
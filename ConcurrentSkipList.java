@@ -0,0 +1,464 @@
+package edu.sdsu.cs.datastructures;
+
+import java.util.Iterator;
+import java.util.NoSuchElementException;
+import java.util.Objects;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.atomic.AtomicMarkableReference;
+import java.util.concurrent.atomic.AtomicReference;
+import java.util.concurrent.atomic.LongAdder;
+import java.util.function.BiFunction;
+import java.util.function.Function;
+
+/**
+ * A sorted, thread-safe map built as a lock-free skip list.
+ * <p>Every key sits on the bottom list and on a random number of express
+ * lists above it, each roughly half as long as the one below, so searches
+ * skip most of the keys in O(log n) expected steps. No operation takes a
+ * lock. Links are updated with compare-and-set, and a link carries a mark
+ * bit so that a node being removed cannot have a new neighbour spliced
+ * after it.
+ * </p>
+ * <p>A key is removed the moment its value is swapped to null. The node is
+ * then marked on every level and unlinked by whichever thread next walks
+ * past it. Updating an existing key swaps its value in place. The key and
+ * value iterators walk the bottom list in key order and are weakly
+ * consistent: they never throw ConcurrentModificationException and reflect
+ * some state of the list at or after their creation. Null values are not
+ * permitted, so a null from getValue always means the key is absent.
+ * </p>
+ *
+ * @param <K> key type, must support comparison with like-type objects
+ * @param <V> value type
+ */
+public class ConcurrentSkipList<K extends Comparable<K>, V> implements MapADT<K, V> {
+
+    private static final int MAX_LEVEL = 32;
+
+    private final Node<K, V> head = new Node<>(null, null, MAX_LEVEL);
+    private final LongAdder currSize = new LongAdder();
+
+    static final class Node<K, V> {
+        final K key;
+        final AtomicReference<V> value;
+        final AtomicMarkableReference<Node<K, V>>[] next;
+
+        @SuppressWarnings("unchecked")
+        Node(K key, V value, int levels) {
+            this.key = key;
+            this.value = new AtomicReference<>(value);
+            next = (AtomicMarkableReference<Node<K, V>>[]) new AtomicMarkableReference<?>[levels];
+            for (int i = 0; i < levels; i++) {
+                next[i] = new AtomicMarkableReference<>(null, false);
+            }
+        }
+
+        int levels() {
+            return next.length;
+        }
+    }
+
+    /**
+     * Returns true if the map has an object for the corresponding key.
+     *
+     * @param key object to search for
+     * @return true if within map, false otherwise
+     */
+    public boolean contains(K key) {
+        return getValue(key) != null;
+    }
+
+    /**
+     * Adds the given key/value pair to the map.
+     *
+     * @param key   Key to add to the map
+     * @param value Corresponding value to associate with the key
+     * @return the previous value associated with this key or null if new
+     */
+    public V add(K key, V value) {
+        return put(key, value, false);
+    }
+
+    /**
+     * Removes the key/value pair identified by the key parameter from the map.
+     *
+     * @param key item to remove
+     * @return true if removed, false if not found or unable to remove
+     */
+    public boolean delete(K key) {
+        Node<K, V>[] preds = newPath();
+        Node<K, V>[] succs = newPath();
+        if (!find(key, preds, succs)) {
+            return false;
+        }
+        Node<K, V> node = succs[0];
+        while (true) {
+            V current = node.value.get();
+            if (current == null) {
+                return false;
+            }
+            if (node.value.compareAndSet(current, null)) {
+                currSize.decrement();
+                unlink(node);
+                return true;
+            }
+        }
+    }
+
+    /**
+     * Returns the value associated with the parameter key.
+     *
+     * @param key key to lookup in the map
+     * @return Value associated with key or null if not found
+     */
+    public V getValue(K key) {
+        Node<K, V> pred = head;
+        Node<K, V> curr = null;
+        for (int level = MAX_LEVEL - 1; level >= 0; level--) {
+            curr = pred.next[level].getReference();
+            while (curr != null && curr.key.compareTo(key) < 0) {
+                pred = curr;
+                curr = curr.next[level].getReference();
+            }
+        }
+        if (curr != null && curr.key.compareTo(key) == 0) {
+            return curr.value.get();
+        }
+        return null;
+    }
+
+    /**
+     * Adds the given key/value pair only if the key is not already mapped.
+     * The check and the insertion happen atomically.
+     *
+     * @param key   Key to add to the map
+     * @param value Value to associate with the key if absent
+     * @return the existing value associated with this key or null if new
+     */
+    @Override
+    public V putIfAbsent(K key, V value) {
+        return put(key, value, true);
+    }
+
+    /**
+     * Returns the value for the key, computing and adding it first if absent.
+     * Racing callers may each run the function, but only one result is
+     * added and every caller returns that one.
+     *
+     * @param key      key to lookup in the map
+     * @param function computes the value to add when the key is absent
+     * @return the existing or newly computed value, null if none computed
+     */
+    @Override
+    public V computeIfAbsent(K key, Function<? super K, ? extends V> function) {
+        V existing = getValue(key);
+        if (existing != null) {
+            return existing;
+        }
+        V value = function.apply(key);
+        if (value == null) {
+            return null;
+        }
+        existing = put(key, value, true);
+        return existing == null ? value : existing;
+    }
+
+    /**
+     * Adds the value if the key is absent, otherwise replaces the current
+     * value with the result of combining it with the parameter value. A null
+     * combination removes the key. The update retries until it applies to
+     * the value it was computed from, so the function may run more than once.
+     *
+     * @param key      key to update in the map
+     * @param value    value to add or combine with the existing one
+     * @param function combines the existing value with the parameter value
+     * @return the new value associated with the key, or null if removed
+     */
+    @Override
+    public V merge(K key, V value, BiFunction<? super V, ? super V, ? extends V> function) {
+        Objects.requireNonNull(value);
+        Node<K, V>[] preds = newPath();
+        Node<K, V>[] succs = newPath();
+        while (true) {
+            if (!find(key, preds, succs)) {
+                if (put(key, value, true) == null) {
+                    return value;
+                }
+                continue;
+            }
+            Node<K, V> node = succs[0];
+            V current = node.value.get();
+            if (current == null) {
+                unlink(node);
+                continue;
+            }
+            V updated = function.apply(current, value);
+            if (node.value.compareAndSet(current, updated)) {
+                if (updated == null) {
+                    currSize.decrement();
+                    unlink(node);
+                }
+                return updated;
+            }
+        }
+    }
+
+    /**
+     * Returns the first key found with the parameter value.
+     *
+     * @param value value to locate
+     * @return key of first item found with the matching value
+     */
+    public K getKey(V value) {
+        for (Node<K, V> node = first(); node != null; node = node.next[0].getReference()) {
+            V current = node.value.get();
+            if (current != null && current.equals(value)) {
+                return node.key;
+            }
+        }
+        return null;
+    }
+
+    /**
+     * Identifies the maxSize of the map. Under concurrent updates this is
+     * an estimate rather than an exact snapshot.
+     *
+     * @return Number of entries stored in the map.
+     */
+    public int size() {
+        long sum = currSize.sum();
+        return sum > Integer.MAX_VALUE ? Integer.MAX_VALUE : (int) Math.max(sum, 0);
+    }
+
+    /**
+     * Indicates if the map contains nothing.
+     *
+     * @return true if the map is empty, as the method cryptically indicates.
+     */
+    public boolean isEmpty() {
+        return first() == null;
+    }
+
+    /**
+     * Resets the map to an empty state with no entries. Keys added while
+     * the clear is running may survive it.
+     */
+    public void clear() {
+        for (Node<K, V> node = first(); node != null; node = node.next[0].getReference()) {
+            delete(node.key);
+        }
+    }
+
+    /**
+     * Provides a key iterator.
+     *
+     * @return Iterator over the keys in sorted order
+     */
+    public Iterator<K> keys() {
+        NodeIterator nodes = new NodeIterator();
+        return new Iterator<K>() {
+            @Override
+            public boolean hasNext() {
+                return nodes.hasNext();
+            }
+
+            @Override
+            public K next() {
+                return nodes.next().key;
+            }
+        };
+    }
+
+    /**
+     * Provides a value iterator. The values arrive corresponding to their
+     * keys in the key order.
+     *
+     * @return Iterator over the values.
+     */
+    public Iterator<V> values() {
+        NodeIterator nodes = new NodeIterator();
+        return new Iterator<V>() {
+            @Override
+            public boolean hasNext() {
+                return nodes.hasNext();
+            }
+
+            @Override
+            public V next() {
+                nodes.next();
+                return nodes.value;
+            }
+        };
+    }
+
+    /**
+     * Walks the bottom list, skipping nodes removed before they are reached.
+     * Each node's value is read once, when the iterator steps onto it.
+     */
+    private final class NodeIterator implements Iterator<Node<K, V>> {
+        Node<K, V> next;
+        V nextValue;
+        V value;
+
+        NodeIterator() {
+            advance(head);
+        }
+
+        private void advance(Node<K, V> from) {
+            next = from.next[0].getReference();
+            while (next != null && (nextValue = next.value.get()) == null) {
+                next = next.next[0].getReference();
+            }
+        }
+
+        @Override
+        public boolean hasNext() {
+            return next != null;
+        }
+
+        @Override
+        public Node<K, V> next() {
+            if (next == null) {
+                throw new NoSuchElementException();
+            }
+            Node<K, V> node = next;
+            value = nextValue;
+            advance(node);
+            return node;
+        }
+    }
+
+    private V put(K key, V value, boolean onlyIfAbsent) {
+        Objects.requireNonNull(value);
+        Node<K, V>[] preds = newPath();
+        Node<K, V>[] succs = newPath();
+        int levels = randomLevels();
+        while (true) {
+            if (find(key, preds, succs)) {
+                Node<K, V> node = succs[0];
+                V current = node.value.get();
+                if (current == null) {
+                    unlink(node);
+                    continue;
+                }
+                if (onlyIfAbsent || node.value.compareAndSet(current, value)) {
+                    return current;
+                }
+                continue;
+            }
+            Node<K, V> node = new Node<>(key, value, levels);
+            for (int level = 0; level < levels; level++) {
+                node.next[level].set(succs[level], false);
+            }
+            if (!preds[0].next[0].compareAndSet(succs[0], node, false, false)) {
+                continue;
+            }
+            currSize.increment();
+            linkUpperLevels(node, preds, succs);
+            return null;
+        }
+    }
+
+    /**
+     * Splices an already-visible node into its express lists. Gives up if
+     * the node is removed part way, since the remover unlinks what it finds.
+     */
+    private void linkUpperLevels(Node<K, V> node, Node<K, V>[] preds, Node<K, V>[] succs) {
+        for (int level = 1; level < node.levels(); level++) {
+            while (true) {
+                Node<K, V> succ = succs[level];
+                boolean[] marked = {false};
+                Node<K, V> current = node.next[level].get(marked);
+                if (marked[0]) {
+                    return;
+                }
+                if (current != succ && !node.next[level].compareAndSet(current, succ, false, false)) {
+                    return;
+                }
+                if (preds[level].next[level].compareAndSet(succ, node, false, false)) {
+                    break;
+                }
+                if (!find(node.key, preds, succs) || succs[0] != node) {
+                    return;
+                }
+            }
+        }
+    }
+
+    /**
+     * Marks every link out of a node whose value is already null, top level
+     * first, then runs a search so the node is snipped out of each list.
+     * Any thread that finds such a node may call this; marking is idempotent.
+     */
+    private void unlink(Node<K, V> node) {
+        boolean[] marked = {false};
+        for (int level = node.levels() - 1; level >= 0; level--) {
+            Node<K, V> succ = node.next[level].get(marked);
+            while (!marked[0]) {
+                node.next[level].compareAndSet(succ, succ, false, true);
+                succ = node.next[level].get(marked);
+            }
+        }
+        find(node.key, newPath(), newPath());
+    }
+
+    /**
+     * Locates the key, filling preds and succs with the nodes either side of
+     * it on every level, and unlinks any marked nodes met along the way.
+     *
+     * @return true if an unmarked node with the key is on the bottom list
+     */
+    private boolean find(K key, Node<K, V>[] preds, Node<K, V>[] succs) {
+        boolean[] marked = {false};
+        retry:
+        while (true) {
+            Node<K, V> pred = head;
+            Node<K, V> curr = null;
+            for (int level = MAX_LEVEL - 1; level >= 0; level--) {
+                curr = pred.next[level].getReference();
+                while (curr != null) {
+                    Node<K, V> succ = curr.next[level].get(marked);
+                    while (marked[0]) {
+                        if (!pred.next[level].compareAndSet(curr, succ, false, false)) {
+                            continue retry;
+                        }
+                        curr = succ;
+                        if (curr == null) {
+                            break;
+                        }
+                        succ = curr.next[level].get(marked);
+                    }
+                    if (curr != null && curr.key.compareTo(key) < 0) {
+                        pred = curr;
+                        curr = succ;
+                    }
+                    else {
+                        break;
+                    }
+                }
+                preds[level] = pred;
+                succs[level] = curr;
+            }
+            return curr != null && curr.key.compareTo(key) == 0;
+        }
+    }
+
+    private Node<K, V> first() {
+        NodeIterator nodes = new NodeIterator();
+        return nodes.hasNext() ? nodes.next() : null;
+    }
+
+    @SuppressWarnings("unchecked")
+    private static <K, V> Node<K, V>[] newPath() {
+        return (Node<K, V>[]) new Node<?, ?>[MAX_LEVEL];
+    }
+
+    /**
+     * Draws a node height from a geometric distribution: one level, plus one
+     * more for each trailing zero bit of a random number.
+     */
+    private static int randomLevels() {
+        int bits = ThreadLocalRandom.current().nextInt();
+        return Math.min(1 + Integer.numberOfTrailingZeros(bits), MAX_LEVEL);
+    }
+}
@@ -0,0 +1,771 @@
+package edu.sdsu.cs.datastructures;
+
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.nio.ByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.ConcurrentModificationException;
+import java.util.HashMap;
+import java.util.Iterator;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.NoSuchElementException;
+
+/**
+ * A B+tree stored in a file, for key sets larger than the heap.
+ * <p>The file is split into fixed-size pages. Page 0 holds the header (page
+ * size, root page, page count, entry count), and every other page holds one
+ * tree node. Nodes are read through a bounded cache that evicts the least
+ * recently used page once it is full. At most cachePages pages are on the
+ * heap at once, however large the tree grows.
+ * </p>
+ * <p>Keys and values are converted to bytes with MappedHashTable codecs and
+ * may vary in length, so nodes split when their encoded entries outgrow a
+ * page. Each encoded key and value pair must fit in a quarter of a page.
+ * Leaves are linked left to right, and the leftmost leaf is always page 1,
+ * so iteration walks the leaf chain in key order. Deletes remove entries
+ * without merging or freeing pages. The space is only reused by later
+ * inserts into the same key range, so a file under churn across shifting
+ * key ranges only grows; clear, or copying the entries into a new tree,
+ * shrinks it.
+ * </p>
+ * <p>The tree file itself only changes on flush and close. A changed page
+ * evicted from the cache between flushes is appended to a journal file
+ * beside the tree, named after it with a ".journal" suffix, and read back
+ * from there if needed again. Flush appends the remaining changed pages
+ * and a commit record to the journal, forces it, and only then copies the
+ * journaled pages and the new header into the tree file. Opening the tree
+ * replays a journal that ends in a commit record, in case the copy was
+ * interrupted, and discards one that does not. Reopening after a crash
+ * therefore finds the map as it stood at the last completed flush. Until
+ * the next flush the journal holds one copy of every page changed since the
+ * last, and the map keeps an index entry for each.
+ * </p>
+ *
+ * @param <K> key type, must support comparison with like-type objects
+ * @param <V> value type
+ */
+public class DiskBPlusTree<K extends Comparable<K>, V> implements MapADT<K, V>, AutoCloseable {
+
+    static final int MAGIC = 0x42505431;
+    private static final int DEFAULT_PAGE_SIZE = 4096;
+    private static final int DEFAULT_CACHE_PAGES = 1024;
+    private static final int NODE_HEADER = 9;
+    private static final byte LEAF = 0;
+    private static final byte INNER = 1;
+    private static final int FIRST_LEAF = 1;
+    private static final int COMMIT = -1;
+
+    private final MappedHashTable.Codec<K> keyCodec;
+    private final MappedHashTable.Codec<V> valueCodec;
+    private final int pageSize;
+    private final int maxEntry;
+    private final Map<Integer, Page<K>> cache;
+    private FileChannel channel;
+    private FileChannel journal;
+    private final Path journalFile;
+    private final Map<Integer, Long> journaled = new HashMap<>();
+    private long journalEnd = 0;
+    private int root;
+    private int pageCount;
+    private int elements;
+    private int modCount = 0;
+
+    // Results handed back up the recursive insert.
+    private K separator;
+    private byte[] separatorBytes;
+    private byte[] replaced;
+
+    /**
+     * One node as held in the cache. Keys are kept both decoded, for
+     * comparison, and encoded, for writing back; values stay encoded until
+     * a caller asks for one.
+     */
+    static final class Page<K> {
+        final int id;
+        final boolean leaf;
+        final List<K> keys = new ArrayList<>();
+        final List<byte[]> keyBytes = new ArrayList<>();
+        final List<byte[]> values;
+        final List<Integer> children;
+        int next = -1;
+        int bytes = NODE_HEADER;
+        boolean dirty;
+
+        Page(int id, boolean leaf) {
+            this.id = id;
+            this.leaf = leaf;
+            values = leaf ? new ArrayList<>() : null;
+            children = leaf ? null : new ArrayList<>();
+        }
+    }
+
+    /**
+     * Opens the tree stored in the file, or creates an empty one if the
+     * file is missing or empty, with 4 KB pages and a 1024-page cache.
+     *
+     * @param file   where the tree lives
+     * @param keys   converts keys to and from bytes
+     * @param values converts values to and from bytes
+     * @throws IOException if the file cannot be opened or is not a tree
+     */
+    public DiskBPlusTree(Path file, MappedHashTable.Codec<K> keys,
+                         MappedHashTable.Codec<V> values) throws IOException {
+        this(file, keys, values, DEFAULT_PAGE_SIZE, DEFAULT_CACHE_PAGES);
+    }
+
+    /**
+     * Opens the tree stored in the file, or creates an empty one if the
+     * file is missing or empty. An existing file keeps the page size it was
+     * created with.
+     *
+     * @param file       where the tree lives
+     * @param keys       converts keys to and from bytes
+     * @param values     converts values to and from bytes
+     * @param pageSize   bytes per page for a new file
+     * @param cachePages most pages held in memory at once
+     * @throws IOException if the file cannot be opened or is not a tree
+     */
+    public DiskBPlusTree(Path file, MappedHashTable.Codec<K> keys, MappedHashTable.Codec<V> values,
+                         int pageSize, int cachePages) throws IOException {
+        if (pageSize < 256) {
+            throw new IllegalArgumentException("Page size must be at least 256: " + pageSize);
+        }
+        if (cachePages < 8) {
+            throw new IllegalArgumentException("Cache must hold at least 8 pages: " + cachePages);
+        }
+        this.keyCodec = keys;
+        this.valueCodec = values;
+        this.cache = new LinkedHashMap<Integer, Page<K>>(16, .75f, true) {
+            @Override
+            protected boolean removeEldestEntry(Map.Entry<Integer, Page<K>> eldest) {
+                if (size() <= cachePages) {
+                    return false;
+                }
+                if (eldest.getValue().dirty) {
+                    write(eldest.getValue());
+                }
+                return true;
+            }
+        };
+        this.journalFile = file.resolveSibling(file.getFileName() + ".journal");
+        channel = FileChannel.open(file, StandardOpenOption.CREATE,
+                StandardOpenOption.READ, StandardOpenOption.WRITE);
+        boolean created = channel.size() == 0;
+        if (created) {
+            this.pageSize = pageSize;
+        }
+        else {
+            ByteBuffer header = ByteBuffer.allocate(20);
+            readFully(channel, header, 0);
+            if (header.getInt(0) != MAGIC) {
+                channel.close();
+                throw new IOException("Not a B+tree file: " + file);
+            }
+            this.pageSize = header.getInt(4);
+            root = header.getInt(8);
+            pageCount = header.getInt(12);
+            elements = header.getInt(16);
+        }
+        maxEntry = (this.pageSize - NODE_HEADER) / 4;
+        try {
+            journal = FileChannel.open(journalFile, StandardOpenOption.CREATE,
+                    StandardOpenOption.READ, StandardOpenOption.WRITE);
+            if (created) {
+                journal.truncate(0);
+                reset();
+                flush();
+            }
+            else {
+                recover();
+            }
+        }
+        catch (IOException | RuntimeException e) {
+            channel.close();
+            if (journal != null) {
+                journal.close();
+            }
+            throw e;
+        }
+    }
+
+    /**
+     * Returns true if the map has an object for the corresponding key.
+     *
+     * @param key object to search for
+     * @return true if within map, false otherwise
+     */
+    public boolean contains(K key) {
+        Page<K> leaf = leafFor(key);
+        return Collections.binarySearch(leaf.keys, key) >= 0;
+    }
+
+    /**
+     * Adds the given key/value pair to the map.
+     *
+     * @param key   Key to add to the map
+     * @param value Corresponding value to associate with the key
+     * @return the previous value associated with this key or null if new
+     * @throws IllegalArgumentException if the encoded pair is larger than a
+     *                                  quarter of a page
+     */
+    public V add(K key, V value) {
+        checkOpen();
+        byte[] encodedKey = keyCodec.encode(key);
+        byte[] encodedValue = valueCodec.encode(value);
+        if (8 + encodedKey.length + encodedValue.length > maxEntry) {
+            throw new IllegalArgumentException("Entry too large for a " + pageSize + " byte page");
+        }
+        replaced = null;
+        int sibling = insert(root, key, encodedKey, encodedValue);
+        if (sibling >= 0) {
+            Page<K> top = allocate(false);
+            top.children.add(root);
+            top.keys.add(separator);
+            top.keyBytes.add(separatorBytes);
+            top.children.add(sibling);
+            top.bytes += 4 + 8 + separatorBytes.length;
+            root = top.id;
+        }
+        separator = null;
+        separatorBytes = null;
+        byte[] old = replaced;
+        replaced = null;
+        return old == null ? null : decode(old, valueCodec);
+    }
+
+    /**
+     * Removes the key/value pair identified by the key parameter from the map.
+     *
+     * @param key item to remove
+     * @return true if removed, false if not found or unable to remove
+     */
+    public boolean delete(K key) {
+        Page<K> leaf = leafFor(key);
+        int index = Collections.binarySearch(leaf.keys, key);
+        if (index < 0) {
+            return false;
+        }
+        leaf.bytes -= 8 + leaf.keyBytes.get(index).length + leaf.values.get(index).length;
+        leaf.keys.remove(index);
+        leaf.keyBytes.remove(index);
+        leaf.values.remove(index);
+        touch(leaf);
+        elements--;
+        modCount++;
+        return true;
+    }
+
+    /**
+     * Returns the value associated with the parameter key.
+     *
+     * @param key key to lookup in the map
+     * @return Value associated with key or null if not found
+     */
+    public V getValue(K key) {
+        Page<K> leaf = leafFor(key);
+        int index = Collections.binarySearch(leaf.keys, key);
+        return index < 0 ? null : decode(leaf.values.get(index), valueCodec);
+    }
+
+    /**
+     * Returns the first key found with the parameter value.
+     *
+     * @param value value to locate
+     * @return key of first item found with the matching value
+     */
+    public K getKey(V value) {
+        checkOpen();
+        byte[] encoded = valueCodec.encode(value);
+        for (int id = FIRST_LEAF; id >= 0; ) {
+            Page<K> leaf = load(id);
+            for (int i = 0; i < leaf.keys.size(); i++) {
+                if (Arrays.equals(leaf.values.get(i), encoded)) {
+                    return leaf.keys.get(i);
+                }
+            }
+            id = leaf.next;
+        }
+        return null;
+    }
+
+    /**
+     * Identifies the maxSize of the map.
+     *
+     * @return Number of entries stored in the map.
+     */
+    public int size() {
+        return elements;
+    }
+
+    /**
+     * Indicates if the map contains nothing.
+     *
+     * @return true if the map is empty, as the method cryptically indicates.
+     */
+    public boolean isEmpty() {
+        return elements == 0;
+    }
+
+    /**
+     * Resets the map to an empty state with no entries. The next flush
+     * shrinks the file back to its header and a single empty leaf.
+     */
+    public void clear() {
+        checkOpen();
+        try {
+            journal.truncate(0);
+        }
+        catch (IOException e) {
+            throw new UncheckedIOException(e);
+        }
+        journaled.clear();
+        journalEnd = 0;
+        reset();
+        modCount++;
+    }
+
+    /**
+     * Provides a key iterator.
+     *
+     * @return Iterator over the keys in sorted order
+     */
+    public Iterator<K> keys() {
+        LeafWalk walk = new LeafWalk();
+        return new Iterator<K>() {
+            @Override
+            public boolean hasNext() {
+                return walk.hasNext();
+            }
+
+            @Override
+            public K next() {
+                walk.advance();
+                return walk.leaf.keys.get(walk.index++);
+            }
+        };
+    }
+
+    /**
+     * Provides a value iterator. The values arrive corresponding to their
+     * keys in the key order.
+     *
+     * @return Iterator over the values.
+     */
+    public Iterator<V> values() {
+        LeafWalk walk = new LeafWalk();
+        return new Iterator<V>() {
+            @Override
+            public boolean hasNext() {
+                return walk.hasNext();
+            }
+
+            @Override
+            public V next() {
+                walk.advance();
+                return decode(walk.leaf.values.get(walk.index++), valueCodec);
+            }
+        };
+    }
+
+    /**
+     * Commits every change since the last flush. Changed pages are added to
+     * the journal and forced, followed by a commit record, before any of
+     * them is copied into the tree file, so a crash at any point leaves
+     * either the previous flush or this one on disk.
+     *
+     * @throws IOException if the write fails
+     */
+    public void flush() throws IOException {
+        checkOpen();
+        try {
+            for (Page<K> page : cache.values()) {
+                if (page.dirty) {
+                    write(page);
+                }
+            }
+        }
+        catch (UncheckedIOException e) {
+            throw e.getCause();
+        }
+        journal.force(false);
+        ByteBuffer commit = ByteBuffer.allocate(20);
+        commit.putInt(COMMIT).putInt(MAGIC).putInt(root).putInt(pageCount).putInt(elements);
+        commit.flip();
+        writeFully(journal, commit, journalEnd);
+        journal.force(false);
+        checkpoint();
+    }
+
+    /**
+     * Copies the committed journal into the tree file, writes the header,
+     * trims pages past the page count, and empties the journal.
+     */
+    private void checkpoint() throws IOException {
+        ByteBuffer buffer = ByteBuffer.allocate(pageSize);
+        for (Map.Entry<Integer, Long> entry : journaled.entrySet()) {
+            buffer.clear();
+            readFully(journal, buffer, entry.getValue());
+            buffer.flip();
+            writeFully(channel, buffer, (long) entry.getKey() * pageSize);
+        }
+        ByteBuffer header = ByteBuffer.allocate(20);
+        header.putInt(MAGIC).putInt(pageSize).putInt(root).putInt(pageCount).putInt(elements);
+        header.flip();
+        writeFully(channel, header, 0);
+        channel.truncate((long) pageCount * pageSize);
+        channel.force(true);
+        journal.truncate(0);
+        journal.force(false);
+        journaled.clear();
+        journalEnd = 0;
+    }
+
+    /**
+     * Reads the journal left by a previous session. If it ends in a commit
+     * record, the flush that wrote it may not have finished copying, so the
+     * copy is redone; otherwise it holds evictions that were never
+     * committed and is dropped.
+     */
+    private void recover() throws IOException {
+        long size = journal.size();
+        long position = 0;
+        ByteBuffer tag = ByteBuffer.allocate(20);
+        while (position + 4 <= size) {
+            tag.clear().limit(4);
+            readFully(journal, tag, position);
+            int id = tag.getInt(0);
+            if (id == COMMIT) {
+                tag.clear();
+                readFully(journal, tag, position);
+                if (tag.position() == 20 && tag.getInt(4) == MAGIC) {
+                    root = tag.getInt(8);
+                    pageCount = tag.getInt(12);
+                    elements = tag.getInt(16);
+                    checkpoint();
+                    return;
+                }
+                break;
+            }
+            if (id < 0 || position + 4 + pageSize > size) {
+                break;
+            }
+            journaled.put(id, position + 4);
+            position += 4 + pageSize;
+        }
+        journaled.clear();
+        journal.truncate(0);
+    }
+
+    /**
+     * Flushes the tree and closes the file. Later calls on the map throw
+     * IllegalStateException.
+     *
+     * @throws IOException if the final flush fails
+     */
+    public void close() throws IOException {
+        if (channel == null) {
+            return;
+        }
+        try {
+            flush();
+            Files.deleteIfExists(journalFile);
+        }
+        finally {
+            channel.close();
+            channel = null;
+            journal.close();
+            journal = null;
+            cache.clear();
+        }
+    }
+
+    /**
+     * Steps along the leaf chain one entry at a time, loading each leaf
+     * through the cache as it is reached.
+     */
+    private final class LeafWalk {
+        final int expectedModCount = modCount;
+        Page<K> leaf;
+        int index = 0;
+
+        LeafWalk() {
+            checkOpen();
+            leaf = load(FIRST_LEAF);
+        }
+
+        boolean hasNext() {
+            while (leaf != null && index >= leaf.keys.size()) {
+                leaf = leaf.next < 0 ? null : load(leaf.next);
+                index = 0;
+            }
+            return leaf != null;
+        }
+
+        void advance() {
+            if (modCount != expectedModCount) {
+                throw new ConcurrentModificationException();
+            }
+            if (!hasNext()) {
+                throw new NoSuchElementException();
+            }
+        }
+    }
+
+    private void reset() {
+        cache.clear();
+        pageCount = FIRST_LEAF;
+        elements = 0;
+        root = allocate(true).id;
+    }
+
+    private Page<K> leafFor(K key) {
+        checkOpen();
+        Page<K> page = load(root);
+        while (!page.leaf) {
+            page = load(page.children.get(childIndex(page, key)));
+        }
+        return page;
+    }
+
+    /**
+     * Picks the child of an inner page that covers the key. Separator i is
+     * the smallest key reachable through child i + 1.
+     */
+    private int childIndex(Page<K> page, K key) {
+        int index = Collections.binarySearch(page.keys, key);
+        return index >= 0 ? index + 1 : -index - 1;
+    }
+
+    /**
+     * Inserts below the page, returning the id of its new right sibling if
+     * it split, with the key dividing them left in separator, or -1.
+     */
+    private int insert(int id, K key, byte[] encodedKey, byte[] encodedValue) {
+        Page<K> page = load(id);
+        if (page.leaf) {
+            int index = Collections.binarySearch(page.keys, key);
+            if (index >= 0) {
+                replaced = page.values.get(index);
+                page.bytes += encodedValue.length - replaced.length;
+                page.values.set(index, encodedValue);
+            }
+            else {
+                index = -index - 1;
+                page.keys.add(index, key);
+                page.keyBytes.add(index, encodedKey);
+                page.values.add(index, encodedValue);
+                page.bytes += 8 + encodedKey.length + encodedValue.length;
+                elements++;
+                modCount++;
+            }
+            touch(page);
+            return page.bytes > pageSize ? split(page) : -1;
+        }
+        int index = childIndex(page, key);
+        int sibling = insert(page.children.get(index), key, encodedKey, encodedValue);
+        if (sibling < 0) {
+            return -1;
+        }
+        page.keys.add(index, separator);
+        page.keyBytes.add(index, separatorBytes);
+        page.children.add(index + 1, sibling);
+        page.bytes += 8 + separatorBytes.length;
+        touch(page);
+        return page.bytes > pageSize ? split(page) : -1;
+    }
+
+    /**
+     * Moves the upper half of an overfull page, by encoded size, into a new
+     * right sibling.
+     */
+    private int split(Page<K> page) {
+        Page<K> right = allocate(page.leaf);
+        int half = page.bytes / 2;
+        int used = NODE_HEADER;
+        int at = 0;
+        while (at < page.keys.size() - 1 && used < half) {
+            used += entryBytes(page, at);
+            at++;
+        }
+        at = Math.max(at, 1);
+        if (page.leaf) {
+            moveTail(page.keys, right.keys, at);
+            moveTail(page.keyBytes, right.keyBytes, at);
+            moveTail(page.values, right.values, at);
+            right.next = page.next;
+            page.next = right.id;
+            separator = right.keys.get(0);
+            separatorBytes = right.keyBytes.get(0);
+        }
+        else {
+            moveTail(page.keys, right.keys, at);
+            moveTail(page.keyBytes, right.keyBytes, at);
+            moveTail(page.children, right.children, at + 1);
+            separator = right.keys.remove(0);
+            separatorBytes = right.keyBytes.remove(0);
+        }
+        page.bytes = measure(page);
+        right.bytes = measure(right);
+        touch(page);
+        touch(right);
+        return right.id;
+    }
+
+    private int entryBytes(Page<K> page, int index) {
+        return page.leaf ? 8 + page.keyBytes.get(index).length + page.values.get(index).length
+                : 8 + page.keyBytes.get(index).length;
+    }
+
+    private int measure(Page<K> page) {
+        int bytes = NODE_HEADER + (page.leaf ? 0 : 4);
+        for (int i = 0; i < page.keys.size(); i++) {
+            bytes += entryBytes(page, i);
+        }
+        return bytes;
+    }
+
+    private static <T> void moveTail(List<T> from, List<T> to, int at) {
+        List<T> tail = from.subList(at, from.size());
+        to.addAll(tail);
+        tail.clear();
+    }
+
+    private Page<K> allocate(boolean leaf) {
+        Page<K> page = new Page<>(pageCount++, leaf);
+        if (!leaf) {
+            page.bytes += 4;
+        }
+        touch(page);
+        return page;
+    }
+
+    /**
+     * Marks a page changed and makes sure the cache holds this copy, since
+     * the page may have been evicted while the caller held it.
+     */
+    private void touch(Page<K> page) {
+        page.dirty = true;
+        cache.put(page.id, page);
+    }
+
+    private Page<K> load(int id) {
+        Page<K> page = cache.get(id);
+        if (page != null) {
+            return page;
+        }
+        ByteBuffer buffer = ByteBuffer.allocate(pageSize);
+        try {
+            Long journalPosition = journaled.get(id);
+            if (journalPosition != null) {
+                readFully(journal, buffer, journalPosition);
+            }
+            else {
+                readFully(channel, buffer, (long) id * pageSize);
+            }
+        }
+        catch (IOException e) {
+            throw new UncheckedIOException(e);
+        }
+        buffer.flip();
+        page = new Page<>(id, buffer.get() == LEAF);
+        int count = buffer.getInt();
+        page.next = buffer.getInt();
+        if (!page.leaf) {
+            page.children.add(buffer.getInt());
+        }
+        for (int i = 0; i < count; i++) {
+            byte[] key = readBlock(buffer);
+            page.keyBytes.add(key);
+            page.keys.add(decode(key, keyCodec));
+            if (page.leaf) {
+                page.values.add(readBlock(buffer));
+            }
+            else {
+                page.children.add(buffer.getInt());
+            }
+        }
+        page.bytes = buffer.position();
+        cache.put(id, page);
+        return page;
+    }
+
+    private void write(Page<K> page) {
+        ByteBuffer buffer = ByteBuffer.allocate(pageSize);
+        buffer.put(page.leaf ? LEAF : INNER).putInt(page.keys.size()).putInt(page.next);
+        if (!page.leaf) {
+            buffer.putInt(page.children.get(0));
+        }
+        for (int i = 0; i < page.keys.size(); i++) {
+            byte[] key = page.keyBytes.get(i);
+            buffer.putInt(key.length).put(key);
+            if (page.leaf) {
+                byte[] value = page.values.get(i);
+                buffer.putInt(value.length).put(value);
+            }
+            else {
+                buffer.putInt(page.children.get(i + 1));
+            }
+        }
+        buffer.clear();
+        try {
+            // Nothing committed refers to the journal until flush writes its
+            // commit record, so a page journaled earlier is overwritten where
+            // it lies rather than appended again.
+            Long position = journaled.get(page.id);
+            if (position == null) {
+                ByteBuffer tag = ByteBuffer.allocate(4).putInt(0, page.id);
+                writeFully(journal, tag, journalEnd);
+                position = journalEnd + 4;
+                journaled.put(page.id, position);
+                journalEnd += 4 + pageSize;
+            }
+            writeFully(journal, buffer, position);
+        }
+        catch (IOException e) {
+            throw new UncheckedIOException(e);
+        }
+        page.dirty = false;
+    }
+
+    private static byte[] readBlock(ByteBuffer buffer) {
+        byte[] bytes = new byte[buffer.getInt()];
+        buffer.get(bytes);
+        return bytes;
+    }
+
+    private static <T> T decode(byte[] bytes, MappedHashTable.Codec<T> codec) {
+        return codec.decode(ByteBuffer.wrap(bytes));
+    }
+
+    private static void readFully(FileChannel file, ByteBuffer buffer, long position)
+            throws IOException {
+        int start = buffer.position();
+        while (buffer.hasRemaining()) {
+            if (file.read(buffer, position + buffer.position() - start) < 0) {
+                break;
+            }
+        }
+    }
+
+    private static void writeFully(FileChannel file, ByteBuffer buffer, long position)
+            throws IOException {
+        int start = buffer.position();
+        while (buffer.hasRemaining()) {
+            file.write(buffer, position + buffer.position() - start);
+        }
+    }
+
+    private void checkOpen() {
+        if (channel == null) {
+            throw new IllegalStateException("Tree has been closed");
+        }
+    }
+}
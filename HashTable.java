@@ -1,14 +1,33 @@
 package edu.sdsu.cs.datastructures;
 
+import java.io.BufferedOutputStream;
+import java.io.DataOutputStream;
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
 import java.util.*;
+import java.util.function.BiFunction;
+import java.util.function.Consumer;
+import java.util.function.Function;
 
 
 public class HashTable<K extends Comparable<K>,V> implements MapADT<K,V> {
 
     final int DEFAULTSIZE = 3;
+    final int REHASH_STEPS = 2;
     public int currSize=0;
-    private List<Entry<K, V>>[] buckets;
+    private Bucket<K, V>[] buckets;
+    private Bucket<K, V>[] oldBuckets;
+    private int rehashIndex;
+    private final boolean incremental;
+    private final boolean powerOfTwo;
     public int lastPrime;
+    private double minLoad = .15;
+    private double maxLoad = .75;
+    private ValueIndex<K, V> valueIndex;
+    private int modCount = 0;
+    private int treeifyThreshold = 8;
+    private int minCapacity = 0;
 
     public static class Entry<K,V> {
         K key;
@@ -20,18 +39,95 @@ public class HashTable<K extends Comparable<K>,V> implements MapADT<K,V> {
         }
     }
 
-    public HashTable(){
-        buckets = new List[DEFAULTSIZE];
-        for(int curBin = 0; curBin < DEFAULTSIZE; curBin++){
-            buckets[curBin] = new LinkedList<>();
+    /**
+     * A single bucket. It starts as a linked chain and turns into a sorted
+     * tree once the chain grows past the treeify threshold, so keys with
+     * colliding hash codes cost a logarithmic lookup rather than a linear
+     * one. The tree orders keys by compareTo, which must agree with equals.
+     */
+    static final class Bucket<K extends Comparable<K>, V> extends AbstractCollection<Entry<K, V>> {
+        private LinkedList<Entry<K, V>> chain = new LinkedList<>();
+        private TreeMap<K, Entry<K, V>> tree;
+
+        Entry<K, V> find(K key) {
+            if (tree != null) {
+                return tree.get(key);
+            }
+            for (Entry<K, V> entry : chain) {
+                if (entry.key.equals(key)) {
+                    return entry;
+                }
+            }
+            return null;
+        }
+
+        void link(Entry<K, V> entry, int threshold) {
+            if (tree != null) {
+                tree.put(entry.key, entry);
+                return;
+            }
+            chain.add(entry);
+            if (chain.size() > threshold) {
+                tree = new TreeMap<>();
+                for (Entry<K, V> item : chain) {
+                    tree.put(item.key, item);
+                }
+                chain = null;
+            }
         }
+
+        Entry<K, V> unlink(K key, int threshold) {
+            if (tree != null) {
+                Entry<K, V> removed = tree.remove(key);
+                if (tree.size() <= threshold / 2) {
+                    chain = new LinkedList<>(tree.values());
+                    tree = null;
+                }
+                return removed;
+            }
+            Iterator<Entry<K, V>> walk = chain.iterator();
+            while (walk.hasNext()) {
+                Entry<K, V> entry = walk.next();
+                if (entry.key.equals(key)) {
+                    walk.remove();
+                    return entry;
+                }
+            }
+            return null;
+        }
+
+        @Override
+        public Iterator<Entry<K, V>> iterator() {
+            return tree != null ? tree.values().iterator() : chain.iterator();
+        }
+
+        @Override
+        public int size() {
+            return tree != null ? tree.size() : chain.size();
+        }
+    }
+
+    public HashTable(){
+        this(3);
     }
 
     public HashTable(int inital) {
-        buckets = new List[inital];
-        for (int curBin = 0; curBin < inital; curBin++) {
-            buckets[curBin] = new LinkedList<>();
-        }
+        this(inital, false, false);
+    }
+
+    /**
+     * Builds a table with the given resize behaviour.
+     *
+     * @param inital      starting number of buckets
+     * @param incremental migrate a few buckets per operation rather than
+     *                    rehashing everything at once when resizing
+     * @param powerOfTwo  size the table in powers of two and spread the hash
+     *                    rather than searching for the next prime
+     */
+    public HashTable(int inital, boolean incremental, boolean powerOfTwo) {
+        this.incremental = incremental;
+        this.powerOfTwo = powerOfTwo;
+        buckets = makeBuckets(powerOfTwo ? roundUp(inital) : inital);
     }
 
 
@@ -43,15 +139,7 @@ public class HashTable<K extends Comparable<K>,V> implements MapADT<K,V> {
      */
 
     public boolean contains(K key) {
-        int index = getHash(key);
-        if(buckets[index] != null){
-            for (int i = 0; i < buckets[index].size(); i++){
-                if (buckets[index].get(i).key.equals(key)){
-                    return true;
-                }
-            }
-        }
-        return false;
+        return entryFor(key) != null;
     }
 
     /**
@@ -62,20 +150,13 @@ public class HashTable<K extends Comparable<K>,V> implements MapADT<K,V> {
      * @return the previous value associated with this key or null if new
      */
     public V add(K key, V value) {
-        Entry<K, V> entry = new Entry<>(key, value);
-        int index = getHash(key);
-        int spot = getIndex(key);
-        if(contains(key)){
-            Entry<K, V> temp = buckets[index].get(spot);
-            buckets[index].set((spot), entry);
-            return temp.value;
-        }
-        else{
-            buckets[index].add(entry);
-            currSize++;
-            check();
-            return null;
+        int slot = locate(key);
+        Entry<K, V> existing = find(slot, key);
+        V temp = (existing == null) ? null : existing.value;
+        if(put(slot, existing, key, value)){
+            growCheck();
         }
+        return temp;
     }
 
     /**
@@ -86,17 +167,17 @@ public class HashTable<K extends Comparable<K>,V> implements MapADT<K,V> {
      */
 
     public boolean delete(K key) {
-        if(contains(key)) {
-            int index = getHash(key);
-            int spot = getIndex(key);
-            buckets[index].remove(spot);
+        Entry<K, V> entry = unlink(key);
+        if(entry != null){
+            if(valueIndex != null){
+                valueIndex.remove(key, entry.value);
+            }
             currSize--;
-            check();
+            modCount++;
+            shrinkCheck();
             return true;
         }
-        else{
-            return false;
-        }
+        return false;
     }
 
     /**
@@ -106,10 +187,8 @@ public class HashTable<K extends Comparable<K>,V> implements MapADT<K,V> {
      * @return Value associated with key or null if not found
      */
     public V getValue(K key) {
-        if(contains(key)) {
-            int index = getHash(key);
-            int spot = getIndex(key);
-            Entry<K, V> temp = buckets[index].get(spot);
+        Entry<K, V> temp = entryFor(key);
+        if(temp != null) {
             return temp.value;
         }
         else{
@@ -117,6 +196,97 @@ public class HashTable<K extends Comparable<K>,V> implements MapADT<K,V> {
         }
     }
 
+    /**
+     * Adds the given key/value pair only if the key is not already mapped.
+     *
+     * @param key   Key to add to the map
+     * @param value Value to associate with the key if absent
+     * @return the existing value associated with this key or null if new
+     */
+    @Override
+    public V putIfAbsent(K key, V value) {
+        int slot = locate(key);
+        Entry<K, V> existing = find(slot, key);
+        if(existing != null && existing.value != null){
+            return existing.value;
+        }
+        if(put(slot, existing, key, value)){
+            growCheck();
+        }
+        return null;
+    }
+
+    /**
+     * Returns the value for the key, computing and adding it first if absent.
+     *
+     * @param key      key to lookup in the map
+     * @param function computes the value to add when the key is absent
+     * @return the existing or newly computed value, null if none computed
+     */
+    @Override
+    public V computeIfAbsent(K key, Function<? super K, ? extends V> function) {
+        int slot = locate(key);
+        Entry<K, V> existing = find(slot, key);
+        if(existing != null && existing.value != null){
+            return existing.value;
+        }
+        int expectedModCount = modCount;
+        V value = function.apply(key);
+        if(modCount != expectedModCount){
+            // The function changed the table, so the slot may be stale.
+            throw new ConcurrentModificationException();
+        }
+        if(value != null && put(slot, existing, key, value)){
+            growCheck();
+        }
+        return value;
+    }
+
+    /**
+     * Adds the value if the key is absent, otherwise replaces the current
+     * value with the result of combining it with the parameter value. A null
+     * combination removes the key.
+     *
+     * @param key      key to update in the map
+     * @param value    value to add or combine with the existing one
+     * @param function combines the existing value with the parameter value
+     * @return the new value associated with the key, or null if removed
+     */
+    @Override
+    public V merge(K key, V value, BiFunction<? super V, ? super V, ? extends V> function) {
+        int slot = locate(key);
+        Bucket<K, V> bucket = bucketIn(slot);
+        Entry<K, V> existing = (bucket == null) ? null : bucket.find(key);
+        if(existing != null){
+            int expectedModCount = modCount;
+            V updated = (existing.value == null) ? value : function.apply(existing.value, value);
+            if(modCount != expectedModCount){
+                // The function changed the table, so the bucket may be stale.
+                throw new ConcurrentModificationException();
+            }
+            if(updated == null){
+                bucket.unlink(key, treeifyThreshold);
+                if(valueIndex != null){
+                    valueIndex.remove(key, existing.value);
+                }
+                currSize--;
+                modCount++;
+                shrinkCheck();
+            }
+            else{
+                if(valueIndex != null){
+                    valueIndex.update(key, existing.value, updated);
+                }
+                existing.value = updated;
+            }
+            return updated;
+        }
+        if(value != null && put(slot, null, key, value)){
+            growCheck();
+        }
+        return value;
+    }
+
     /**
      * Returns the first key found with the parameter value.
      *
@@ -125,13 +295,12 @@ public class HashTable<K extends Comparable<K>,V> implements MapADT<K,V> {
      */
 
     public K getKey(V value) {
-        for (int i = 0; i < buckets.length; i++){
-            if(buckets[i] != null){
-                for(int j = 0; j < buckets[i].size(); j++){
-                    if(buckets[i].get(j).value.equals(value)){
-                        return buckets[i].get(j).key;
-                    }
-                }
+        if (valueIndex != null){
+            return valueIndex.getKey(value);
+        }
+        for (Entry<K, V> entry : snapshot()){
+            if(entry.value.equals(value)){
+                return entry.key;
             }
         }
         return null;
@@ -162,36 +331,276 @@ public class HashTable<K extends Comparable<K>,V> implements MapADT<K,V> {
      * Resets the map to an empty state with no entries.
      */
     public void clear() {
-        buckets = new List[DEFAULTSIZE];
-        for(int curBin = 0; curBin < DEFAULTSIZE; curBin++){
-            buckets[curBin] = new LinkedList<>();
+        buckets = makeBuckets(buckets.length);
+        oldBuckets = null;
+        currSize = 0;
+        modCount++;
+        if (valueIndex != null) {
+            valueIndex.clear();
         }
     }
 
     /**
-     * Provides a key iterator.
+     * Turns on a reverse index from values to keys so getKey no longer scans
+     * the table, or turns it off again. Entries already present are indexed
+     * in table order.
      *
-     * @return Iterator over the keys (some data structures provided sorted)
+     * @param policy which key getKey reports for shared values, or null to
+     *               drop the index
      */
-    public Iterator<K> keys() {
-        List<Entry<K, V>> temp = new ArrayList<>();
-        for (int i = 0; i < buckets.length; i++){
-            if(buckets[i].size() != 0){
-                for (int j = 0; j < buckets[i].size(); j++){
-                    temp.add(buckets[i].get(j));
+    public void setValueIndex(ValueIndex.Policy policy) {
+        if (policy == null) {
+            valueIndex = null;
+            return;
+        }
+        valueIndex = new ValueIndex<>(policy);
+        for (Entry<K, V> entry : snapshot()) {
+            valueIndex.add(entry.key, entry.value);
+        }
+    }
+
+    /**
+     * Sets the load factors at which the table grows and shrinks. Resizes
+     * aim for the midpoint between the two, so a table that just grew or
+     * shrank sits well clear of both bounds.
+     *
+     * @param minLoad shrink once entries per bucket drop below this
+     * @param maxLoad grow once entries per bucket rise above this
+     */
+    public void setLoadFactors(double minLoad, double maxLoad) {
+        if (minLoad < 0 || maxLoad <= 0 || minLoad >= maxLoad) {
+            throw new IllegalArgumentException("Invalid load factors: "
+                    + minLoad + ", " + maxLoad);
+        }
+        this.minLoad = minLoad;
+        this.maxLoad = maxLoad;
+    }
+
+    /**
+     * Writes the table to a snapshot file that MappedHashTable can serve
+     * lookups from without rebuilding. Buckets are written in order in a
+     * single pass, followed by a directory of where each bucket starts.
+     * Keys must hash the same way in the process that reads the file.
+     *
+     * @param file   destination, replaced if it exists
+     * @param keys   encodes keys to bytes
+     * @param values encodes values to bytes
+     * @throws IOException if the file cannot be written
+     */
+    public void writeSnapshot(Path file, MappedHashTable.Codec<K> keys,
+                              MappedHashTable.Codec<V> values) throws IOException {
+        finishRehash();
+        long[] directory = new long[buckets.length + 1];
+        try (DataOutputStream out = new DataOutputStream(new BufferedOutputStream(
+                Files.newOutputStream(file)))) {
+            out.writeInt(MappedHashTable.MAGIC);
+            out.writeBoolean(powerOfTwo);
+            out.writeInt(buckets.length);
+            out.writeInt(currSize);
+            long position = MappedHashTable.HEADER;
+            for (int i = 0; i < buckets.length; i++) {
+                directory[i] = position;
+                if (buckets[i] != null) {
+                    for (Entry<K, V> entry : buckets[i]) {
+                        position += writeBytes(out, keys.encode(entry.key));
+                        position += writeBytes(out, entry.value == null ? null
+                                : values.encode(entry.value));
+                    }
                 }
             }
+            directory[buckets.length] = position;
+            for (long offset : directory) {
+                out.writeLong(offset);
+            }
+        }
+    }
+
+    private static int writeBytes(DataOutputStream out, byte[] bytes) throws IOException {
+        if (bytes == null) {
+            out.writeInt(-1);
+            return 4;
+        }
+        out.writeInt(bytes.length);
+        out.write(bytes);
+        return 4 + bytes.length;
+    }
+
+    /**
+     * Sets the chain length above which a bucket turns into a sorted tree.
+     * Trees fall back to chains once they shrink to half this length, and
+     * every resize rebuilds buckets as chains unless they are still long.
+     *
+     * @param threshold longest chain kept as a linked list
+     */
+    public void setTreeifyThreshold(int threshold) {
+        if (threshold < 1) {
+            throw new IllegalArgumentException("Invalid threshold: " + threshold);
+        }
+        treeifyThreshold = threshold;
+    }
+
+    /**
+     * Grows the table, if needed, so that it holds the given number of
+     * entries without another resize. The table also stops shrinking below
+     * this capacity, so deletes ahead of a bulk load don't undo the sizing.
+     *
+     * @param capacity number of entries the table should accommodate
+     */
+    public void ensureCapacity(int capacity) {
+        minCapacity = Math.max(minCapacity, capacity);
+        presize(capacity);
+    }
+
+    /**
+     * Grows the table ahead of a batch without pinning its size the way
+     * ensureCapacity does.
+     */
+    private void presize(int capacity) {
+        int needed = (int) Math.ceil(capacity / maxLoad);
+        if (needed > buckets.length) {
+            finishRehash();
+            resize(sizeFor(needed));
+            finishRehash();
+        }
+    }
+
+    /**
+     * Copies every entry of another map into this one, sizing the table
+     * once up front.
+     *
+     * @param other map whose entries to add
+     */
+    @Override
+    public void addAll(MapADT<K, V> other) {
+        presize(currSize + other.size());
+        Iterator<K> keys = other.keys();
+        Iterator<V> values = other.values();
+        while (keys.hasNext()) {
+            put(keys.next(), values.next());
         }
+        growCheck();
+    }
+
+    /**
+     * Adds a batch of key/value pairs. The table is sized once for the
+     * whole batch, the keys are then visited bucket by bucket so each chain
+     * is walked while it is still in cache, and the load is checked once at
+     * the end rather than after every insert.
+     *
+     * @param keys   keys to add
+     * @param values values to associate with the keys, in the same order
+     * @throws IllegalArgumentException if the lists differ in length
+     */
+    @Override
+    public void addAll(List<K> keys, List<V> values) {
+        if (keys.size() != values.size()) {
+            throw new IllegalArgumentException("Key and value counts differ");
+        }
+        presize(currSize + keys.size());
+        finishRehash();
+        for (int i : bucketOrder(keys)) {
+            put(keys.get(i), values.get(i));
+        }
+        growCheck();
+    }
+
+    /**
+     * Looks up a batch of keys, visiting them bucket by bucket.
+     *
+     * @param keys keys to look up
+     * @return the value for each key in the same order, null where absent
+     */
+    @Override
+    public List<V> getAll(List<K> keys) {
+        Object[] found = new Object[keys.size()];
+        for (int i : bucketOrder(keys)) {
+            Entry<K, V> entry = entryFor(keys.get(i));
+            found[i] = (entry == null) ? null : entry.value;
+        }
+        @SuppressWarnings("unchecked")
+        List<V> result = (List<V>) Arrays.asList(found);
+        return result;
+    }
+
+    /**
+     * Removes a batch of keys, visiting them bucket by bucket and checking
+     * whether the table should shrink once at the end.
+     *
+     * @param keys keys to remove
+     * @return how many of the keys were present and removed
+     */
+    @Override
+    public int deleteAll(List<K> keys) {
+        finishRehash();
+        int removed = 0;
+        for (int i : bucketOrder(keys)) {
+            K key = keys.get(i);
+            Entry<K, V> entry = unlink(key);
+            if (entry != null) {
+                if (valueIndex != null) {
+                    valueIndex.remove(key, entry.value);
+                }
+                removed++;
+            }
+        }
+        if (removed > 0) {
+            currSize -= removed;
+            modCount++;
+            shrinkCheck();
+        }
+        return removed;
+    }
+
+    /**
+     * Orders batch positions by the bucket each key hashes to in the current
+     * table, keeping positions within a bucket in batch order so a repeated
+     * key is applied last-wins.
+     */
+    private int[] bucketOrder(List<K> keys) {
+        long[] tagged = new long[keys.size()];
+        for (int i = 0; i < tagged.length; i++) {
+            tagged[i] = ((long) indexFor(keys.get(i), buckets.length) << 32) | i;
+        }
+        Arrays.sort(tagged);
+        int[] order = new int[tagged.length];
+        for (int i = 0; i < order.length; i++) {
+            order[i] = (int) tagged[i];
+        }
+        return order;
+    }
+
+    /**
+     * Adds a stream of entries, sizing the table once for the expected
+     * count rather than growing repeatedly along the way.
+     *
+     * @param entries  entries to add
+     * @param expected number of entries the iterator will produce
+     */
+    public void load(Iterator<Entry<K, V>> entries, int expected) {
+        presize(currSize + expected);
+        while (entries.hasNext()) {
+            Entry<K, V> entry = entries.next();
+            put(entry.key, entry.value);
+        }
+        growCheck();
+    }
+
+    /**
+     * Provides a key iterator.
+     *
+     * @return Iterator over the keys (some data structures provided sorted)
+     */
+    public Iterator<K> keys() {
+        EntryIterator walk = new EntryIterator();
         return new Iterator<K>() {
-            int index = 0;
             @Override
             public boolean hasNext() {
-               return (index < temp.size());
+               return walk.hasNext();
             }
 
             @Override
             public K next() {
-                return temp.get(index++).key;
+                return walk.next().key;
             }
         };
     }
@@ -203,118 +612,361 @@ public class HashTable<K extends Comparable<K>,V> implements MapADT<K,V> {
      * @return Iterator over the values.
      */
     public Iterator<V> values() {
-        List<Entry<K, V>> temp = new ArrayList<>();
-        for (int i = 0; i < buckets.length; i++){
-            if(buckets[i].size() != 0){
-                for (int j = 0; j < buckets[i].size(); j++){
-                    temp.add(buckets[i].get(j));
-                }
-            }
-        }
+        EntryIterator walk = new EntryIterator();
         return new Iterator<V>() {
-            int index = 0;
             @Override
             public boolean hasNext() {
-                return (index < currSize);
+                return walk.hasNext();
             }
 
             @Override
             public V next() {
-                return temp.get(index++).value;
+                return walk.next().value;
             }
         };
     }
 
-    private int primeGen(int num) {
-        boolean ready = false;
-        lastPrime =num;
-        num=num*2;
-        do{
-            num++;
-            for (int i = 2; i < num; i++) {
-                if(num%i == 0){
-                    break;
+    /**
+     * Provides a key spliterator that splits the bucket array between
+     * threads rather than copying the keys out first.
+     *
+     * @return Spliterator over the keys
+     */
+    @Override
+    public Spliterator<K> keySpliterator() {
+        finishRehash();
+        return new BucketSpliterator<>(0, buckets.length, entry -> entry.key,
+                Spliterator.DISTINCT | Spliterator.NONNULL);
+    }
+
+    /**
+     * Provides a value spliterator that splits the bucket array between
+     * threads rather than copying the values out first.
+     *
+     * @return Spliterator over the values
+     */
+    @Override
+    public Spliterator<V> valueSpliterator() {
+        finishRehash();
+        return new BucketSpliterator<>(0, buckets.length, entry -> entry.value, 0);
+    }
+
+    /**
+     * Walks the buckets in place, one bucket at a time. Any structural change
+     * to the table other than through this iterator makes the next call fail.
+     */
+    private final class EntryIterator implements Iterator<Entry<K, V>> {
+        final Bucket<K, V>[] table;
+        final int expectedModCount;
+        int bucket = -1;
+        Iterator<Entry<K, V>> current = Collections.emptyIterator();
+
+        EntryIterator() {
+            finishRehash();
+            table = buckets;
+            expectedModCount = modCount;
+            advance();
+        }
+
+        private void advance() {
+            while (!current.hasNext() && ++bucket < table.length) {
+                if (table[bucket] != null) {
+                    current = table[bucket].iterator();
+                }
+            }
+        }
+
+        @Override
+        public boolean hasNext() {
+            return current.hasNext();
+        }
+
+        @Override
+        public Entry<K, V> next() {
+            if (modCount != expectedModCount) {
+                throw new ConcurrentModificationException();
+            }
+            if (!current.hasNext()) {
+                throw new NoSuchElementException();
+            }
+            Entry<K, V> entry = current.next();
+            advance();
+            return entry;
+        }
+    }
+
+    /**
+     * Covers a range of the bucket array and splits it in half on demand.
+     */
+    private final class BucketSpliterator<T> implements Spliterator<T> {
+        final Bucket<K, V>[] table = buckets;
+        final Function<Entry<K, V>, T> extract;
+        final int characteristics;
+        final int expectedModCount = modCount;
+        int index;
+        int fence;
+        Iterator<Entry<K, V>> current = Collections.emptyIterator();
+
+        BucketSpliterator(int origin, int fence, Function<Entry<K, V>, T> extract,
+                          int characteristics) {
+            this.index = origin;
+            this.fence = fence;
+            this.extract = extract;
+            this.characteristics = characteristics;
+        }
+
+        @Override
+        public boolean tryAdvance(Consumer<? super T> action) {
+            while (!current.hasNext()) {
+                if (index >= fence) {
+                    return false;
                 }
-                else if(i+1 == num){
-                    ready = true;
+                Bucket<K, V> bucket = table[index++];
+                if (bucket != null) {
+                    current = bucket.iterator();
                 }
             }
-        }while(!ready);
+            action.accept(extract.apply(current.next()));
+            if (modCount != expectedModCount) {
+                throw new ConcurrentModificationException();
+            }
+            return true;
+        }
+
+        @Override
+        public Spliterator<T> trySplit() {
+            int mid = (index + fence) >>> 1;
+            if (current.hasNext() || mid <= index) {
+                return null;
+            }
+            BucketSpliterator<T> prefix = new BucketSpliterator<>(index, mid, extract,
+                    characteristics);
+            index = mid;
+            return prefix;
+        }
+
+        @Override
+        public long estimateSize() {
+            return table.length == 0 ? 0 : (long) currSize * (fence - index) / table.length;
+        }
+
+        @Override
+        public int characteristics() {
+            return characteristics;
+        }
+    }
+
+    private boolean put(K key, V value) {
+        int slot = locate(key);
+        return put(slot, find(slot, key), key, value);
+    }
+
+    /**
+     * Stores the value for a key already looked up in the given slot:
+     * replaced in place when existing is its entry, linked as a new entry
+     * otherwise. Leaves the load check to the caller, so batches can make
+     * it once.
+     *
+     * @return true if a new entry was linked
+     */
+    private boolean put(int slot, Entry<K, V> existing, K key, V value) {
+        if (existing != null) {
+            if (valueIndex != null) {
+                valueIndex.update(key, existing.value, value);
+            }
+            existing.value = value;
+            return false;
+        }
+        claim(slot).link(new Entry<>(key, value), treeifyThreshold);
+        if (valueIndex != null) {
+            valueIndex.add(key, value);
+        }
+        currSize++;
+        modCount++;
+        return true;
+    }
+
+    private int sizeFor(int needed) {
+        if (powerOfTwo) {
+            return roundUp(needed);
+        }
+        int num = Math.max(needed, DEFAULTSIZE);
+        while (!isPrime(num)) {
+            num++;
+        }
         return num;
     }
 
-    private void check(){
-        if ((double)size()/(double)buckets.length > .75){
-            grow();
+    private boolean isPrime(int num) {
+        if (num % 2 == 0){
+            return num == 2;
         }
-        else if((double)size()/(double)buckets.length < .15){
-            shrink();
+        for (int i = 3; (long) i * i <= num; i += 2) {
+            if(num%i == 0){
+                return false;
+            }
         }
+        return true;
     }
 
+    private int targetSize(){
+        return sizeFor((int) Math.ceil(currSize / ((minLoad + maxLoad) / 2)));
+    }
 
-    private void grow(){
-        int newSize = primeGen(buckets.length);
-        List<Entry<K, V>>[] temp = new List[newSize];
-        for(int curBin = 0; curBin < temp.length; curBin++){
-            temp[curBin] = new LinkedList<>();
+    private void growCheck(){
+        if (oldBuckets == null && (double)size()/(double)buckets.length > maxLoad){
+            resize(targetSize());
         }
-        for (int i = 0; i < buckets.length; i++) {
-            if (buckets[i] != null) {
-                for (int j = 0; j < buckets[i].size(); j++) {
-                    Entry<K, V> insert = buckets[i].get(j);
-                    K key = insert.key;
-                    int index = key.hashCode()%newSize;
-                    if (index < 0){
-                        index = index * -1;
-                    }
-                    temp[index].add(insert);
-                }
+    }
+
+    private void shrinkCheck() {
+        if (oldBuckets == null && (double)size()/(double)buckets.length < minLoad) {
+            int newSize = Math.max(targetSize(),
+                    sizeFor((int) Math.ceil(minCapacity / maxLoad)));
+            if (newSize < buckets.length) {
+                resize(newSize);
             }
         }
-        buckets = temp;
     }
 
-    private void shrink() {
-        List<Entry<K, V>>[] temp = new List[lastPrime];
-        for (int curBin = 0; curBin < lastPrime; curBin++) {
-            temp[curBin] = new LinkedList<>();
+    /**
+     * Starts moving every entry into a table of the new size. Incremental
+     * tables keep the old buckets around and drain them a few at a time in
+     * rehashStep(); otherwise the whole table moves before returning. Buckets
+     * are only created once something lands in them, so starting a resize
+     * costs no more than allocating the array.
+     */
+    private void resize(int newSize){
+        modCount++;
+        lastPrime = buckets.length;
+        oldBuckets = buckets;
+        buckets = makeBuckets(newSize);
+        rehashIndex = 0;
+        if (!incremental) {
+            rehashStep(oldBuckets.length);
         }
-        for (int i = 0; i < buckets.length; i++) {
-            if (buckets[i] != null) {
-                for (int j = 0; j < buckets[i].size(); j++) {
-                    Entry<K, V> insert = buckets[i].get(j);
-                    K key = insert.key;
-                    int index = key.hashCode()%lastPrime;
-                    if (index < 0){
-                        index = index * -1;
-                    }
-                    temp[index].add(insert);
+    }
+
+    private void rehashStep(int steps){
+        for (; steps > 0 && rehashIndex < oldBuckets.length; steps--) {
+            if (oldBuckets[rehashIndex] != null) {
+                for (Entry<K, V> insert : oldBuckets[rehashIndex]) {
+                    bucketAt(buckets, indexFor(insert.key, buckets.length))
+                            .link(insert, treeifyThreshold);
                 }
             }
+            oldBuckets[rehashIndex++] = null;
+        }
+        if (rehashIndex == oldBuckets.length) {
+            oldBuckets = null;
+        }
+    }
+
+    private void finishRehash(){
+        if (oldBuckets != null) {
+            rehashStep(oldBuckets.length);
+        }
+    }
+
+    /**
+     * Locates the slot currently responsible for the key, hashing it once.
+     * While a resize is in progress, keys whose old bucket has not yet
+     * migrated still live in the old table, so each key is only ever found
+     * in one place. Such a slot comes back complemented, as ~index, so one
+     * int names both the table and the index.
+     */
+    private int locate(K key){
+        if (oldBuckets != null) {
+            rehashStep(REHASH_STEPS);
+        }
+        if (oldBuckets != null) {
+            int old = indexFor(key, oldBuckets.length);
+            if (old >= rehashIndex) {
+                return ~old;
+            }
+        }
+        return indexFor(key, buckets.length);
+    }
+
+    /**
+     * The bucket in a slot from locate, or null if the slot is empty. Reads
+     * go through here and never write to the table.
+     */
+    private Bucket<K, V> bucketIn(int slot){
+        return slot < 0 ? oldBuckets[~slot] : buckets[slot];
+    }
+
+    /**
+     * Like bucketIn, but creates the bucket if the slot is empty. Only
+     * paths that are about to link a new entry call this.
+     */
+    private Bucket<K, V> claim(int slot){
+        return slot < 0 ? bucketAt(oldBuckets, ~slot) : bucketAt(buckets, slot);
+    }
+
+    private Entry<K, V> find(int slot, K key){
+        Bucket<K, V> bucket = bucketIn(slot);
+        return bucket == null ? null : bucket.find(key);
+    }
+
+    private Entry<K, V> entryFor(K key){
+        return find(locate(key), key);
+    }
+
+    private Entry<K, V> unlink(K key){
+        Bucket<K, V> bucket = bucketIn(locate(key));
+        return bucket == null ? null : bucket.unlink(key, treeifyThreshold);
+    }
+
+    private Bucket<K, V> bucketAt(Bucket<K, V>[] table, int index){
+        if (table[index] == null){
+            table[index] = new Bucket<>();
         }
-        buckets = temp;
+        return table[index];
     }
 
-    private int getHash(K k){
-        int hash = k.hashCode()%buckets.length;
+    private int indexFor(K k, int length){
+        return indexFor(k.hashCode(), length, powerOfTwo);
+    }
+
+    static int indexFor(int hash, int length, boolean powerOfTwo){
+        if (powerOfTwo){
+            return (hash ^ (hash >>> 16)) & (length - 1);
+        }
+        hash = hash % length;
         if (hash < 0){
             hash = hash * -1;
-            return hash;
         }
         return hash;
     }
 
-    private int getIndex(K key){
-        int index = getHash(key);
-        for(int i= 0; i < buckets[index].size(); i++){
-            if ((buckets[index].get(i).key).equals(key)){
-                return i;
+    private List<Entry<K, V>> snapshot(){
+        List<Entry<K, V>> temp = new ArrayList<>(currSize);
+        if (oldBuckets != null){
+            for (int i = rehashIndex; i < oldBuckets.length; i++){
+                if (oldBuckets[i] != null){
+                    temp.addAll(oldBuckets[i]);
+                }
             }
         }
-        return -1;
+        for (Bucket<K, V> bucket : buckets){
+            if (bucket != null){
+                temp.addAll(bucket);
+            }
+        }
+        return temp;
     }
-}
-
 
+    @SuppressWarnings("unchecked")
+    private Bucket<K, V>[] makeBuckets(int size){
+        return (Bucket<K, V>[]) new Bucket<?, ?>[size];
+    }
 
+    private static int roundUp(int n){
+        int size = 4;
+        while (size < n && size < (1 << 30)){
+            size <<= 1;
+        }
+        return size;
+    }
+}
@@ -0,0 +1,67 @@
+package edu.sdsu.cs.datastructures;
+
+/**
+ * Sizing, hashing and deletion rules shared by the linear-probing tables
+ * keyed by primitives: IntHashTable, LongHashTable and LongLongHashTable,
+ * with OffHeapHashTable using the deletion rule as well. Each table keeps its
+ * own loops because its key array has a different primitive type, but the
+ * decisions inside those loops live here so a fix reaches all of them.
+ */
+final class LinearProbing {
+
+    static final int DEFAULTSIZE = 8;
+    static final double MAX_LOAD = .75;
+    static final double MIN_LOAD = .15;
+
+    private LinearProbing() {
+    }
+
+    /**
+     * Smallest power of two table, no smaller than the default, that holds
+     * the given number of entries under the maximum load.
+     */
+    static int capacityFor(int entries) {
+        return tableSizeFor((int) Math.ceil(entries / MAX_LOAD));
+    }
+
+    static boolean needsGrow(int size, int slots) {
+        return size > MAX_LOAD * slots;
+    }
+
+    static boolean needsShrink(int size, int slots) {
+        return slots > DEFAULTSIZE && size < MIN_LOAD * slots;
+    }
+
+    /**
+     * Decides, while shifting a run back after a delete, whether the entry
+     * at slot may move into the gap at last. It can only move if the gap
+     * lies cyclically between its home slot and where it sits now; otherwise
+     * it would end up before its home and lookups would miss it.
+     */
+    static boolean movesBack(int last, int home, int slot) {
+        return last <= slot ? last >= home || home > slot : last >= home && home > slot;
+    }
+
+    static int mix(int key) {
+        int h = key * 0x9E3779B9;
+        return h ^ (h >>> 16);
+    }
+
+    static int mix(long key) {
+        long h = key * 0x9E3779B97F4A7C15L;
+        return (int) (h ^ (h >>> 32));
+    }
+
+    @SuppressWarnings("unchecked")
+    static <V> V[] newValues(int size) {
+        return (V[]) new Object[size];
+    }
+
+    private static int tableSizeFor(int n) {
+        int size = DEFAULTSIZE;
+        while (size < n && size < (1 << 30)) {
+            size <<= 1;
+        }
+        return size;
+    }
+}
@@ -0,0 +1,322 @@
+package edu.sdsu.cs.datastructures;
+
+import java.util.ConcurrentModificationException;
+import java.util.NoSuchElementException;
+import java.util.PrimitiveIterator;
+
+/**
+ * A hash table mapping primitive longs to primitive longs.
+ * <p>Mirrors the MapADT operations without boxing: keys and values sit in
+ * flat parallel long arrays, and no per-entry objects exist. A key of 0
+ * marks an empty slot, so a mapping for 0 itself is kept to one side.
+ * Collisions probe linearly and deletion shifts the following run back, so
+ * no tombstones build up. The sizing and shift rules live in LinearProbing,
+ * shared with the other primitive tables.
+ * </p>
+ * <p>Lookups of absent keys return a configurable missing value, 0 unless
+ * given otherwise, since a primitive value cannot be null.
+ * </p>
+ */
+public class LongLongHashTable {
+
+    private long[] keyTable;
+    private long[] valueTable;
+    private final long missingValue;
+    private int mask;
+    private boolean hasZeroKey;
+    private long zeroValue;
+    private int currSize = 0;
+    private int modCount = 0;
+
+    public LongLongHashTable() {
+        this(LinearProbing.DEFAULTSIZE, 0);
+    }
+
+    /**
+     * Builds a table sized for the given number of entries.
+     *
+     * @param initial      expected number of entries
+     * @param missingValue value reported for keys not in the table
+     */
+    public LongLongHashTable(int initial, long missingValue) {
+        this.missingValue = missingValue;
+        allocate(LinearProbing.capacityFor(initial));
+    }
+
+    /**
+     * Returns true if the map has an object for the corresponding key.
+     *
+     * @param key key to search for
+     * @return true if within map, false otherwise
+     */
+    public boolean contains(long key) {
+        return key == 0 ? hasZeroKey : find(key) >= 0;
+    }
+
+    /**
+     * Adds the given key/value pair to the map.
+     *
+     * @param key   Key to add to the map
+     * @param value Corresponding value to associate with the key
+     * @return the previous value associated with this key or the missing
+     * value if new
+     */
+    public long add(long key, long value) {
+        if (key == 0) {
+            long old = hasZeroKey ? zeroValue : missingValue;
+            zeroValue = value;
+            if (!hasZeroKey) {
+                hasZeroKey = true;
+                currSize++;
+                modCount++;
+            }
+            return old;
+        }
+        int slot = LinearProbing.mix(key) & mask;
+        while (keyTable[slot] != 0) {
+            if (keyTable[slot] == key) {
+                long old = valueTable[slot];
+                valueTable[slot] = value;
+                return old;
+            }
+            slot = (slot + 1) & mask;
+        }
+        keyTable[slot] = key;
+        valueTable[slot] = value;
+        currSize++;
+        modCount++;
+        if (LinearProbing.needsGrow(currSize, keyTable.length)) {
+            resize(keyTable.length << 1);
+        }
+        return missingValue;
+    }
+
+    /**
+     * Removes the key/value pair identified by the key parameter from the map.
+     *
+     * @param key item to remove
+     * @return true if removed, false if not found
+     */
+    public boolean delete(long key) {
+        if (key == 0) {
+            if (!hasZeroKey) {
+                return false;
+            }
+            hasZeroKey = false;
+            currSize--;
+            modCount++;
+            return true;
+        }
+        int slot = find(key);
+        if (slot < 0) {
+            return false;
+        }
+        shiftKeys(slot);
+        currSize--;
+        modCount++;
+        if (LinearProbing.needsShrink(currSize, keyTable.length)) {
+            resize(keyTable.length >> 1);
+        }
+        return true;
+    }
+
+    /**
+     * Returns the value associated with the parameter key.
+     *
+     * @param key key to lookup in the map
+     * @return Value associated with key or the missing value if not found
+     */
+    public long getValue(long key) {
+        if (key == 0) {
+            return hasZeroKey ? zeroValue : missingValue;
+        }
+        int slot = find(key);
+        return slot < 0 ? missingValue : valueTable[slot];
+    }
+
+    /**
+     * Returns the first key found with the parameter value.
+     *
+     * @param value value to locate
+     * @param missing key to return when no entry holds the value
+     * @return key of first item found with the matching value
+     */
+    public long getKey(long value, long missing) {
+        if (hasZeroKey && zeroValue == value) {
+            return 0;
+        }
+        for (int i = 0; i < keyTable.length; i++) {
+            if (keyTable[i] != 0 && valueTable[i] == value) {
+                return keyTable[i];
+            }
+        }
+        return missing;
+    }
+
+    /**
+     * Identifies the maxSize of the map.
+     *
+     * @return Number of entries stored in the map.
+     */
+    public int size() {
+        return currSize;
+    }
+
+    /**
+     * Indicates if the map contains nothing.
+     *
+     * @return true if the map is empty, as the method cryptically indicates.
+     */
+    public boolean isEmpty() {
+        return currSize == 0;
+    }
+
+    /**
+     * Resets the map to an empty state with no entries.
+     */
+    public void clear() {
+        allocate(LinearProbing.DEFAULTSIZE);
+        hasZeroKey = false;
+        currSize = 0;
+        modCount++;
+    }
+
+    /**
+     * Provides a key iterator.
+     *
+     * @return Iterator over the keys, unboxed
+     */
+    public PrimitiveIterator.OfLong keys() {
+        return new PrimitiveIterator.OfLong() {
+            final SlotCursor cursor = new SlotCursor();
+
+            @Override
+            public boolean hasNext() {
+                return cursor.hasNext();
+            }
+
+            @Override
+            public long nextLong() {
+                int slot = cursor.next();
+                return slot < 0 ? 0 : cursor.keys[slot];
+            }
+        };
+    }
+
+    /**
+     * Provides a value iterator. The values arrive corresponding to their
+     * keys in the key order.
+     *
+     * @return Iterator over the values, unboxed
+     */
+    public PrimitiveIterator.OfLong values() {
+        return new PrimitiveIterator.OfLong() {
+            final SlotCursor cursor = new SlotCursor();
+
+            @Override
+            public boolean hasNext() {
+                return cursor.hasNext();
+            }
+
+            @Override
+            public long nextLong() {
+                int slot = cursor.next();
+                return slot < 0 ? zeroValue : cursor.values[slot];
+            }
+        };
+    }
+
+    /**
+     * Walks the occupied slots, reporting the zero key first as slot -1.
+     * A delete shifts later entries back and a resize replaces the arrays,
+     * so any change to the table after the cursor is created fails fast
+     * rather than skipping or repeating entries.
+     */
+    private final class SlotCursor {
+        final long[] keys = keyTable;
+        final long[] values = valueTable;
+        final int expectedModCount = modCount;
+        int slot = hasZeroKey ? -1 : advance(0);
+
+        private int advance(int from) {
+            while (from < keys.length && keys[from] == 0) {
+                from++;
+            }
+            return from;
+        }
+
+        boolean hasNext() {
+            return slot < keys.length;
+        }
+
+        int next() {
+            if (modCount != expectedModCount) {
+                throw new ConcurrentModificationException();
+            }
+            if (!hasNext()) {
+                throw new NoSuchElementException();
+            }
+            int current = slot;
+            slot = advance(slot + 1);
+            return current;
+        }
+    }
+
+    private int find(long key) {
+        int slot = LinearProbing.mix(key) & mask;
+        while (keyTable[slot] != 0) {
+            if (keyTable[slot] == key) {
+                return slot;
+            }
+            slot = (slot + 1) & mask;
+        }
+        return -1;
+    }
+
+    /**
+     * Empties a slot and pulls back any later entry in the run that would
+     * otherwise become unreachable from its home slot.
+     */
+    private void shiftKeys(int slot) {
+        int last;
+        long curr;
+        for (;;) {
+            slot = ((last = slot) + 1) & mask;
+            for (;;) {
+                if ((curr = keyTable[slot]) == 0) {
+                    keyTable[last] = 0;
+                    return;
+                }
+                int home = LinearProbing.mix(curr) & mask;
+                if (LinearProbing.movesBack(last, home, slot)) {
+                    break;
+                }
+                slot = (slot + 1) & mask;
+            }
+            keyTable[last] = curr;
+            valueTable[last] = valueTable[slot];
+        }
+    }
+
+    private void resize(int newSize) {
+        long[] oldKeys = keyTable;
+        long[] oldValues = valueTable;
+        allocate(newSize);
+        for (int i = 0; i < oldKeys.length; i++) {
+            if (oldKeys[i] != 0) {
+                int slot = LinearProbing.mix(oldKeys[i]) & mask;
+                while (keyTable[slot] != 0) {
+                    slot = (slot + 1) & mask;
+                }
+                keyTable[slot] = oldKeys[i];
+                valueTable[slot] = oldValues[i];
+            }
+        }
+    }
+
+    private void allocate(int size) {
+        keyTable = new long[size];
+        valueTable = new long[size];
+        mask = size - 1;
+    }
+}
@@ -1,5 +1,11 @@
 package edu.sdsu.cs.datastructures;
+import java.util.ArrayList;
 import java.util.Iterator;
+import java.util.List;
+import java.util.Spliterator;
+import java.util.Spliterators;
+import java.util.function.BiFunction;
+import java.util.function.Function;
 public interface MapADT<K extends Comparable<K>, V> {
     /**
      * Returns true if the map has an object for the corresponding key.
@@ -68,4 +74,138 @@ public interface MapADT<K extends Comparable<K>, V> {
      * @return Iterator over the values.
      */
     Iterator<V> values();
+
+    /**
+     * Provides a key spliterator for use with streams. The default wraps the
+     * key iterator, so it splits by handing off batches.
+     * @return Spliterator over the keys
+     */
+    default Spliterator<K> keySpliterator() {
+        return Spliterators.spliterator(keys(), size(), Spliterator.DISTINCT);
+    }
+
+    /**
+     * Provides a value spliterator for use with streams, in the same order
+     * as the value iterator.
+     * @return Spliterator over the values
+     */
+    default Spliterator<V> valueSpliterator() {
+        return Spliterators.spliterator(values(), size(), 0);
+    }
+
+    /**
+     * Adds the given key/value pair only if the key is not already mapped.
+     *
+     * @param key   Key to add to the map
+     * @param value Value to associate with the key if absent
+     * @return the existing value associated with this key or null if new
+     */
+    default V putIfAbsent(K key, V value) {
+        V existing = getValue(key);
+        if (existing == null) {
+            add(key, value);
+        }
+        return existing;
+    }
+
+    /**
+     * Returns the value for the key, computing and adding it first if absent.
+     *
+     * @param key      key to lookup in the map
+     * @param function computes the value to add when the key is absent
+     * @return the existing or newly computed value, null if none computed
+     */
+    default V computeIfAbsent(K key, Function<? super K, ? extends V> function) {
+        V existing = getValue(key);
+        if (existing == null) {
+            existing = function.apply(key);
+            if (existing != null) {
+                add(key, existing);
+            }
+        }
+        return existing;
+    }
+
+    /**
+     * Adds the value if the key is absent, otherwise replaces the current
+     * value with the result of combining it with the parameter value. A null
+     * combination removes the key.
+     *
+     * @param key      key to update in the map
+     * @param value    value to add or combine with the existing one
+     * @param function combines the existing value with the parameter value
+     * @return the new value associated with the key, or null if removed
+     */
+    default V merge(K key, V value, BiFunction<? super V, ? super V, ? extends V> function) {
+        V existing = getValue(key);
+        V updated = (existing == null) ? value : function.apply(existing, value);
+        if (updated == null) {
+            delete(key);
+        }
+        else {
+            add(key, updated);
+        }
+        return updated;
+    }
+
+    /**
+     * Copies every entry of another map into this one.
+     *
+     * @param other map whose entries to add
+     */
+    default void addAll(MapADT<K, V> other) {
+        Iterator<K> keys = other.keys();
+        Iterator<V> values = other.values();
+        while (keys.hasNext()) {
+            add(keys.next(), values.next());
+        }
+    }
+
+    /**
+     * Adds a batch of key/value pairs, pairing keys and values by position.
+     * When a key repeats within the batch its last value wins.
+     *
+     * @param keys   keys to add
+     * @param values values to associate with the keys, in the same order
+     * @throws IllegalArgumentException if the lists differ in length
+     */
+    default void addAll(List<K> keys, List<V> values) {
+        if (keys.size() != values.size()) {
+            throw new IllegalArgumentException("Key and value counts differ");
+        }
+        Iterator<V> value = values.iterator();
+        for (K key : keys) {
+            add(key, value.next());
+        }
+    }
+
+    /**
+     * Looks up a batch of keys.
+     *
+     * @param keys keys to look up
+     * @return the value for each key in the same order, null where absent
+     */
+    default List<V> getAll(List<K> keys) {
+        List<V> found = new ArrayList<>(keys.size());
+        for (K key : keys) {
+            found.add(getValue(key));
+        }
+        return found;
+    }
+
+    /**
+     * Removes a batch of keys.
+     *
+     * @param keys keys to remove
+     * @return how many of the keys were present and removed
+     */
+    default int deleteAll(List<K> keys) {
+        int removed = 0;
+        for (K key : keys) {
+            if (delete(key)) {
+                removed++;
+            }
+        }
+        return removed;
+    }
 }
@@ -0,0 +1,348 @@
+package edu.sdsu.cs.datastructures;
+
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.MappedByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.util.Iterator;
+import java.util.NoSuchElementException;
+
+/**
+ * A map served straight from a HashTable snapshot file.
+ * <p>Opening the snapshot only maps the file into memory, so startup costs
+ * nothing beyond the pages later lookups touch. Reads hash the key to its
+ * bucket, look the bucket up in the directory at the end of the file and
+ * compare encoded key bytes in place. The first write copies every entry
+ * into an ordinary HashTable, and all later calls go to that copy; the
+ * file itself is never modified.
+ * </p>
+ * <p>The file holds a header (magic number, sizing mode, bucket count,
+ * entry count), then each bucket's entries as length-prefixed key and value
+ * bytes, then one offset per bucket plus the end of the data.
+ * </p>
+ *
+ * @param <K> key type, must support comparison with like-type objects
+ * @param <V> value type
+ */
+public class MappedHashTable<K extends Comparable<K>, V> implements MapADT<K, V> {
+
+    static final int MAGIC = 0x48545331;
+    static final int HEADER = 13;
+
+    private final Codec<K> keyCodec;
+    private final Codec<V> valueCodec;
+    private MappedByteBuffer mapping;
+    private boolean powerOfTwo;
+    private int bucketCount;
+    private int entryCount;
+    private int directory;
+    private HashTable<K, V> heap;
+
+    /**
+     * Converts keys or values to bytes and back. Equal items must encode
+     * to identical bytes, since lookups compare the encoded form.
+     *
+     * @param <T> type being encoded
+     */
+    public interface Codec<T> {
+        byte[] encode(T item);
+
+        T decode(ByteBuffer bytes);
+
+        Codec<String> STRING = new Codec<String>() {
+            @Override
+            public byte[] encode(String item) {
+                return item.getBytes(StandardCharsets.UTF_8);
+            }
+
+            @Override
+            public String decode(ByteBuffer bytes) {
+                return StandardCharsets.UTF_8.decode(bytes).toString();
+            }
+        };
+
+        Codec<Integer> INTEGER = new Codec<Integer>() {
+            @Override
+            public byte[] encode(Integer item) {
+                return ByteBuffer.allocate(4).putInt(item).array();
+            }
+
+            @Override
+            public Integer decode(ByteBuffer bytes) {
+                return bytes.getInt(bytes.position());
+            }
+        };
+
+        Codec<Long> LONG = new Codec<Long>() {
+            @Override
+            public byte[] encode(Long item) {
+                return ByteBuffer.allocate(8).putLong(item).array();
+            }
+
+            @Override
+            public Long decode(ByteBuffer bytes) {
+                return bytes.getLong(bytes.position());
+            }
+        };
+    }
+
+    private MappedHashTable(Codec<K> keyCodec, Codec<V> valueCodec) {
+        this.keyCodec = keyCodec;
+        this.valueCodec = valueCodec;
+    }
+
+    /**
+     * Maps a snapshot written by HashTable.writeSnapshot.
+     *
+     * @param file   snapshot to open
+     * @param keys   decodes the keys in the file
+     * @param values decodes the values in the file
+     * @param <K>    key type
+     * @param <V>    value type
+     * @return a map reading from the file
+     * @throws IOException if the file cannot be mapped or is not a snapshot
+     */
+    public static <K extends Comparable<K>, V> MappedHashTable<K, V> open(
+            Path file, Codec<K> keys, Codec<V> values) throws IOException {
+        MappedHashTable<K, V> table = new MappedHashTable<>(keys, values);
+        try (FileChannel channel = FileChannel.open(file, StandardOpenOption.READ)) {
+            if (channel.size() > Integer.MAX_VALUE) {
+                throw new IOException("Snapshot larger than 2 GB: " + file);
+            }
+            table.mapping = channel.map(FileChannel.MapMode.READ_ONLY, 0, channel.size());
+        }
+        MappedByteBuffer map = table.mapping;
+        if (map.capacity() < HEADER || map.getInt(0) != MAGIC) {
+            throw new IOException("Not a HashTable snapshot: " + file);
+        }
+        table.powerOfTwo = map.get(4) != 0;
+        table.bucketCount = map.getInt(5);
+        table.entryCount = map.getInt(9);
+        table.directory = map.capacity() - (table.bucketCount + 1) * 8;
+        if (table.bucketCount <= 0 || table.directory < HEADER) {
+            throw new IOException("Corrupt snapshot: " + file);
+        }
+        return table;
+    }
+
+    /**
+     * Returns true if the map has an object for the corresponding key.
+     *
+     * @param key object to search for
+     * @return true if within map, false otherwise
+     */
+    public boolean contains(K key) {
+        if (heap != null) {
+            return heap.contains(key);
+        }
+        return locate(key) >= 0;
+    }
+
+    /**
+     * Adds the given key/value pair to the map. The first write copies the
+     * snapshot onto the heap.
+     *
+     * @param key   Key to add to the map
+     * @param value Corresponding value to associate with the key
+     * @return the previous value associated with this key or null if new
+     */
+    public V add(K key, V value) {
+        return promote().add(key, value);
+    }
+
+    /**
+     * Removes the key/value pair identified by the key parameter from the map.
+     * The first write copies the snapshot onto the heap.
+     *
+     * @param key item to remove
+     * @return true if removed, false if not found or unable to remove
+     */
+    public boolean delete(K key) {
+        return promote().delete(key);
+    }
+
+    /**
+     * Returns the value associated with the parameter key.
+     *
+     * @param key key to lookup in the map
+     * @return Value associated with key or null if not found
+     */
+    public V getValue(K key) {
+        if (heap != null) {
+            return heap.getValue(key);
+        }
+        int entry = locate(key);
+        return entry < 0 ? null : readValue(entry + 4 + mapping.getInt(entry));
+    }
+
+    /**
+     * Returns the first key found with the parameter value.
+     *
+     * @param value value to locate
+     * @return key of first item found with the matching value
+     */
+    public K getKey(V value) {
+        if (heap != null) {
+            return heap.getKey(value);
+        }
+        for (EntryCursor cursor = new EntryCursor(); cursor.hasNext(); ) {
+            int entry = cursor.next();
+            int valueAt = entry + 4 + mapping.getInt(entry);
+            V candidate = readValue(valueAt);
+            if (candidate != null && candidate.equals(value)) {
+                return readBytes(entry, keyCodec);
+            }
+        }
+        return null;
+    }
+
+    /**
+     * Identifies the maxSize of the map.
+     *
+     * @return Number of entries stored in the map.
+     */
+    public int size() {
+        return heap != null ? heap.size() : entryCount;
+    }
+
+    /**
+     * Indicates if the map contains nothing.
+     *
+     * @return true if the map is empty, as the method cryptically indicates.
+     */
+    public boolean isEmpty() {
+        return size() == 0;
+    }
+
+    /**
+     * Resets the map to an empty state with no entries.
+     */
+    public void clear() {
+        heap = new HashTable<>(3, false, powerOfTwo);
+        mapping = null;
+    }
+
+    /**
+     * Provides a key iterator.
+     *
+     * @return Iterator over the keys (some data structures provided sorted)
+     */
+    public Iterator<K> keys() {
+        if (heap != null) {
+            return heap.keys();
+        }
+        EntryCursor cursor = new EntryCursor();
+        return new Iterator<K>() {
+            @Override
+            public boolean hasNext() {
+                return cursor.hasNext();
+            }
+
+            @Override
+            public K next() {
+                return readBytes(cursor.next(), keyCodec);
+            }
+        };
+    }
+
+    /**
+     * Provides a value iterator. The values arrive corresponding to their
+     * keys in the key order.
+     *
+     * @return Iterator over the values.
+     */
+    public Iterator<V> values() {
+        if (heap != null) {
+            return heap.values();
+        }
+        EntryCursor cursor = new EntryCursor();
+        return new Iterator<V>() {
+            @Override
+            public boolean hasNext() {
+                return cursor.hasNext();
+            }
+
+            @Override
+            public V next() {
+                int entry = cursor.next();
+                return readValue(entry + 4 + mapping.getInt(entry));
+            }
+        };
+    }
+
+    /**
+     * Steps through the entries in file order, yielding each entry's offset.
+     */
+    private final class EntryCursor {
+        int position = HEADER;
+        final int end = (int) mapping.getLong(directory + bucketCount * 8);
+
+        boolean hasNext() {
+            return position < end;
+        }
+
+        int next() {
+            if (!hasNext()) {
+                throw new NoSuchElementException();
+            }
+            int entry = position;
+            int valueAt = entry + 4 + mapping.getInt(entry);
+            int valueLength = mapping.getInt(valueAt);
+            position = valueAt + 4 + Math.max(valueLength, 0);
+            return entry;
+        }
+    }
+
+    private int locate(K key) {
+        byte[] encoded = keyCodec.encode(key);
+        int bucket = HashTable.indexFor(key.hashCode(), bucketCount, powerOfTwo);
+        int position = (int) mapping.getLong(directory + bucket * 8);
+        int end = (int) mapping.getLong(directory + (bucket + 1) * 8);
+        while (position < end) {
+            int keyLength = mapping.getInt(position);
+            if (keyLength == encoded.length && bytesMatch(position + 4, encoded)) {
+                return position;
+            }
+            int valueAt = position + 4 + keyLength;
+            position = valueAt + 4 + Math.max(mapping.getInt(valueAt), 0);
+        }
+        return -1;
+    }
+
+    private boolean bytesMatch(int position, byte[] encoded) {
+        for (int i = 0; i < encoded.length; i++) {
+            if (mapping.get(position + i) != encoded[i]) {
+                return false;
+            }
+        }
+        return true;
+    }
+
+    private V readValue(int position) {
+        return mapping.getInt(position) < 0 ? null : readBytes(position, valueCodec);
+    }
+
+    private <T> T readBytes(int position, Codec<T> codec) {
+        int length = mapping.getInt(position);
+        ByteBuffer bytes = mapping.duplicate();
+        bytes.position(position + 4).limit(position + 4 + length);
+        return codec.decode(bytes.slice());
+    }
+
+    private HashTable<K, V> promote() {
+        if (heap == null) {
+            HashTable<K, V> copy = new HashTable<>(bucketCount, false, powerOfTwo);
+            Iterator<K> keys = keys();
+            Iterator<V> values = values();
+            while (keys.hasNext()) {
+                copy.add(keys.next(), values.next());
+            }
+            heap = copy;
+            mapping = null;
+        }
+        return heap;
+    }
+}
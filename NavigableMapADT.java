@@ -0,0 +1,95 @@
+package edu.sdsu.cs.datastructures;
+
+import java.util.Iterator;
+
+public interface NavigableMapADT<K extends Comparable<K>, V> extends MapADT<K, V> {
+    /**
+     * Returns the largest key less than or equal to the parameter key.
+     *
+     * @param key key to search around
+     * @return the greatest key not above key, or null if there is none
+     */
+    K floorKey(K key);
+
+    /**
+     * Returns the smallest key greater than or equal to the parameter key.
+     *
+     * @param key key to search around
+     * @return the least key not below key, or null if there is none
+     */
+    K ceilingKey(K key);
+
+    /**
+     * Returns the smallest key in the map.
+     *
+     * @return the lowest key, or null if the map is empty
+     */
+    K firstKey();
+
+    /**
+     * Returns the largest key in the map.
+     *
+     * @return the highest key, or null if the map is empty
+     */
+    K lastKey();
+
+    /**
+     * Counts the keys strictly less than the parameter key, which need not
+     * be in the map.
+     *
+     * @param key key to rank
+     * @return number of keys below key
+     */
+    int rank(K key);
+
+    /**
+     * Returns the key at the given position in sorted order, so that
+     * select(rank(k)) is k for every key k in the map.
+     *
+     * @param index zero-based position among the sorted keys
+     * @return the key with exactly index keys below it
+     * @throws IndexOutOfBoundsException if index is negative or not less
+     *                                   than size()
+     */
+    K select(int index);
+
+    /**
+     * Provides a view of the keys from fromKey, inclusive, up to toKey,
+     * exclusive. Changes through the view reach the map and the reverse.
+     *
+     * @param fromKey lowest key in the view
+     * @param toKey   key just past the view
+     * @return the bounded view
+     * @throws IllegalArgumentException if fromKey is above toKey or the
+     *                                  range lies outside this map's bounds
+     */
+    NavigableMapADT<K, V> subMap(K fromKey, K toKey);
+
+    /**
+     * Provides a view of the keys strictly below toKey.
+     *
+     * @param toKey key just past the view
+     * @return the bounded view
+     */
+    NavigableMapADT<K, V> headMap(K toKey);
+
+    /**
+     * Provides a view of the keys from fromKey upward.
+     *
+     * @param fromKey lowest key in the view
+     * @return the bounded view
+     */
+    NavigableMapADT<K, V> tailMap(K fromKey);
+
+    /**
+     * Iterates the keys from fromKey, inclusive, up to toKey, exclusive, in
+     * sorted order. Stopping early leaves the rest of the range unvisited.
+     *
+     * @param fromKey lowest key to visit
+     * @param toKey   key just past the last one to visit
+     * @return Iterator over the keys in range
+     */
+    default Iterator<K> range(K fromKey, K toKey) {
+        return subMap(fromKey, toKey).keys();
+    }
+}
@@ -0,0 +1,444 @@
+package edu.sdsu.cs.datastructures;
+
+import java.lang.reflect.Field;
+import java.lang.reflect.Method;
+import java.nio.ByteBuffer;
+import java.util.ConcurrentModificationException;
+import java.util.Iterator;
+import java.util.NoSuchElementException;
+
+/**
+ * A hash table for fixed-width binary keys and values stored off the heap.
+ * <p>Every entry lives in one direct ByteBuffer as a slot holding an
+ * occupied flag, the cached hash, the key bytes and the value bytes. No Java
+ * object exists per entry, so the garbage collector never has to trace the
+ * contents and its cost does not grow with the table. Collisions probe
+ * linearly and deletion shifts the following run back. Growing allocates a
+ * larger buffer, rehashes into it and frees the old one.
+ * </p>
+ * <p>Keys and values are read from the remaining bytes of the buffers
+ * passed in, without changing their positions, and must match the widths
+ * given at construction. Lookups return copies, since the backing memory
+ * moves when the table grows. Call close() to release the memory right away
+ * rather than waiting for the buffer to be collected.
+ * </p>
+ */
+public class OffHeapHashTable implements MapADT<ByteBuffer, ByteBuffer>, AutoCloseable {
+
+    private static final int DEFAULTSIZE = 16;
+    private static final double MAX_LOAD = .75;
+    private static final int HEADER = 5;
+
+    private final int keyWidth;
+    private final int valueWidth;
+    private final int slotWidth;
+    private ByteBuffer table;
+    private int slots;
+    private int currSize = 0;
+    private int modCount = 0;
+
+    /**
+     * Builds an empty table for the given entry layout.
+     *
+     * @param keyWidth   number of bytes in every key
+     * @param valueWidth number of bytes in every value
+     */
+    public OffHeapHashTable(int keyWidth, int valueWidth) {
+        this(keyWidth, valueWidth, DEFAULTSIZE);
+    }
+
+    /**
+     * Builds an empty table for the given entry layout, sized to hold the
+     * expected number of entries before growing.
+     *
+     * @param keyWidth   number of bytes in every key
+     * @param valueWidth number of bytes in every value
+     * @param expected   number of entries to size for
+     */
+    public OffHeapHashTable(int keyWidth, int valueWidth, int expected) {
+        if (keyWidth <= 0 || valueWidth < 0) {
+            throw new IllegalArgumentException("Invalid widths: " + keyWidth
+                    + ", " + valueWidth);
+        }
+        this.keyWidth = keyWidth;
+        this.valueWidth = valueWidth;
+        this.slotWidth = HEADER + keyWidth + valueWidth;
+        int size = DEFAULTSIZE;
+        while (size * MAX_LOAD < expected) {
+            size <<= 1;
+        }
+        table = allocate(size);
+        slots = size;
+    }
+
+    /**
+     * Returns true if the map has an object for the corresponding key.
+     *
+     * @param key object to search for
+     * @return true if within map, false otherwise
+     */
+    public boolean contains(ByteBuffer key) {
+        checkKey(key);
+        return find(key, hash(key)) >= 0;
+    }
+
+    /**
+     * Adds the given key/value pair to the map.
+     *
+     * @param key   Key to add to the map
+     * @param value Corresponding value to associate with the key
+     * @return the previous value associated with this key or null if new
+     */
+    public ByteBuffer add(ByteBuffer key, ByteBuffer value) {
+        checkKey(key);
+        if (value.remaining() != valueWidth) {
+            throw new IllegalArgumentException("Value must be " + valueWidth
+                    + " bytes");
+        }
+        int hash = hash(key);
+        int slot = hash & (slots - 1);
+        while (occupied(slot)) {
+            if (table.getInt(offset(slot) + 1) == hash && keyMatches(slot, key)) {
+                ByteBuffer old = copyValue(slot);
+                writeBytes(offset(slot) + HEADER + keyWidth, value);
+                return old;
+            }
+            slot = (slot + 1) & (slots - 1);
+        }
+        writeSlot(slot, hash, key, value);
+        currSize++;
+        modCount++;
+        if (currSize > MAX_LOAD * slots) {
+            grow();
+        }
+        return null;
+    }
+
+    /**
+     * Removes the key/value pair identified by the key parameter from the map.
+     *
+     * @param key item to remove
+     * @return true if removed, false if not found or unable to remove
+     */
+    public boolean delete(ByteBuffer key) {
+        checkKey(key);
+        int slot = find(key, hash(key));
+        if (slot < 0) {
+            return false;
+        }
+        int mask = slots - 1;
+        int last;
+        for (;;) {
+            slot = ((last = slot) + 1) & mask;
+            for (;;) {
+                if (!occupied(slot)) {
+                    table.put(offset(last), (byte) 0);
+                    currSize--;
+                    modCount++;
+                    return true;
+                }
+                int home = table.getInt(offset(slot) + 1) & mask;
+                if (LinearProbing.movesBack(last, home, slot)) {
+                    break;
+                }
+                slot = (slot + 1) & mask;
+            }
+            copySlot(slot, last);
+        }
+    }
+
+    /**
+     * Returns the value associated with the parameter key.
+     *
+     * @param key key to lookup in the map
+     * @return copy of the value associated with key or null if not found
+     */
+    public ByteBuffer getValue(ByteBuffer key) {
+        checkKey(key);
+        int slot = find(key, hash(key));
+        return slot < 0 ? null : copyValue(slot);
+    }
+
+    /**
+     * Copies the value associated with the key into the destination buffer
+     * without allocating.
+     *
+     * @param key key to lookup in the map
+     * @param dst buffer receiving the value bytes at its position
+     * @return true if the key was found and copied, false otherwise
+     */
+    public boolean getValue(ByteBuffer key, ByteBuffer dst) {
+        checkKey(key);
+        int slot = find(key, hash(key));
+        if (slot < 0) {
+            return false;
+        }
+        int base = offset(slot) + HEADER + keyWidth;
+        for (int i = 0; i < valueWidth; i++) {
+            dst.put(table.get(base + i));
+        }
+        return true;
+    }
+
+    /**
+     * Returns the first key found with the parameter value.
+     *
+     * @param value value to locate
+     * @return copy of the key of first item found with the matching value
+     */
+    public ByteBuffer getKey(ByteBuffer value) {
+        checkOpen();
+        if (value.remaining() != valueWidth) {
+            return null;
+        }
+        for (int slot = 0; slot < slots; slot++) {
+            if (occupied(slot) && bytesMatch(offset(slot) + HEADER + keyWidth, value, valueWidth)) {
+                return copyBytes(offset(slot) + HEADER, keyWidth);
+            }
+        }
+        return null;
+    }
+
+    /**
+     * Identifies the maxSize of the map.
+     *
+     * @return Number of entries stored in the map.
+     */
+    public int size() {
+        return currSize;
+    }
+
+    /**
+     * Indicates if the map contains nothing.
+     *
+     * @return true if the map is empty, as the method cryptically indicates.
+     */
+    public boolean isEmpty() {
+        return currSize == 0;
+    }
+
+    /**
+     * Resets the map to an empty state with no entries. The memory already
+     * reserved is kept.
+     */
+    public void clear() {
+        checkOpen();
+        for (int slot = 0; slot < slots; slot++) {
+            table.put(offset(slot), (byte) 0);
+        }
+        currSize = 0;
+        modCount++;
+    }
+
+    /**
+     * Provides a key iterator.
+     *
+     * @return Iterator over copies of the keys
+     */
+    public Iterator<ByteBuffer> keys() {
+        return new SlotIterator(HEADER, keyWidth);
+    }
+
+    /**
+     * Provides a value iterator. The values arrive corresponding to their
+     * keys in the key order.
+     *
+     * @return Iterator over copies of the values.
+     */
+    public Iterator<ByteBuffer> values() {
+        return new SlotIterator(HEADER + keyWidth, valueWidth);
+    }
+
+    /**
+     * Releases the off-heap memory. The table cannot be used afterwards.
+     */
+    @Override
+    public void close() {
+        if (table != null) {
+            free(table);
+            table = null;
+            currSize = 0;
+            modCount++;
+        }
+    }
+
+    /**
+     * Walks the occupied slots in table order. Deletes shift later entries
+     * back into earlier slots, so any structural change, not just a grow
+     * that swaps the buffer, fails the next call.
+     */
+    private final class SlotIterator implements Iterator<ByteBuffer> {
+        final int expectedModCount = modCount;
+        final int start;
+        final int width;
+        int slot;
+
+        SlotIterator(int start, int width) {
+            checkOpen();
+            this.start = start;
+            this.width = width;
+            slot = advance(0);
+        }
+
+        private int advance(int from) {
+            while (from < slots && !occupied(from)) {
+                from++;
+            }
+            return from;
+        }
+
+        @Override
+        public boolean hasNext() {
+            return slot < slots;
+        }
+
+        @Override
+        public ByteBuffer next() {
+            if (modCount != expectedModCount) {
+                throw new ConcurrentModificationException();
+            }
+            if (!hasNext()) {
+                throw new NoSuchElementException();
+            }
+            ByteBuffer item = copyBytes(offset(slot) + start, width);
+            slot = advance(slot + 1);
+            return item;
+        }
+    }
+
+    private int find(ByteBuffer key, int hash) {
+        int slot = hash & (slots - 1);
+        while (occupied(slot)) {
+            if (table.getInt(offset(slot) + 1) == hash && keyMatches(slot, key)) {
+                return slot;
+            }
+            slot = (slot + 1) & (slots - 1);
+        }
+        return -1;
+    }
+
+    private void grow() {
+        if ((long) slots * 2 * slotWidth > Integer.MAX_VALUE) {
+            throw new IllegalStateException("Table exceeds the maximum buffer size");
+        }
+        ByteBuffer old = table;
+        int oldSlots = slots;
+        table = allocate(oldSlots * 2);
+        slots = oldSlots * 2;
+        for (int slot = 0; slot < oldSlots; slot++) {
+            int from = slot * slotWidth;
+            if (old.get(from) != 0) {
+                int to = old.getInt(from + 1) & (slots - 1);
+                while (occupied(to)) {
+                    to = (to + 1) & (slots - 1);
+                }
+                for (int i = 0; i < slotWidth; i++) {
+                    table.put(offset(to) + i, old.get(from + i));
+                }
+            }
+        }
+        free(old);
+    }
+
+    private boolean occupied(int slot) {
+        return table.get(offset(slot)) != 0;
+    }
+
+    private int offset(int slot) {
+        return slot * slotWidth;
+    }
+
+    private boolean keyMatches(int slot, ByteBuffer key) {
+        return bytesMatch(offset(slot) + HEADER, key, keyWidth);
+    }
+
+    private boolean bytesMatch(int base, ByteBuffer other, int width) {
+        int pos = other.position();
+        for (int i = 0; i < width; i++) {
+            if (table.get(base + i) != other.get(pos + i)) {
+                return false;
+            }
+        }
+        return true;
+    }
+
+    private void writeSlot(int slot, int hash, ByteBuffer key, ByteBuffer value) {
+        int base = offset(slot);
+        table.put(base, (byte) 1);
+        table.putInt(base + 1, hash);
+        writeBytes(base + HEADER, key);
+        writeBytes(base + HEADER + keyWidth, value);
+    }
+
+    private void writeBytes(int base, ByteBuffer src) {
+        int pos = src.position();
+        int width = src.remaining();
+        for (int i = 0; i < width; i++) {
+            table.put(base + i, src.get(pos + i));
+        }
+    }
+
+    private void copySlot(int from, int to) {
+        int src = offset(from);
+        int dst = offset(to);
+        for (int i = 0; i < slotWidth; i++) {
+            table.put(dst + i, table.get(src + i));
+        }
+    }
+
+    private ByteBuffer copyValue(int slot) {
+        return copyBytes(offset(slot) + HEADER + keyWidth, valueWidth);
+    }
+
+    private ByteBuffer copyBytes(int base, int width) {
+        byte[] bytes = new byte[width];
+        for (int i = 0; i < width; i++) {
+            bytes[i] = table.get(base + i);
+        }
+        return ByteBuffer.wrap(bytes);
+    }
+
+    private int hash(ByteBuffer key) {
+        int pos = key.position();
+        int h = 1;
+        for (int i = 0; i < keyWidth; i++) {
+            h = 31 * h + key.get(pos + i);
+        }
+        h *= 0x9E3779B9;
+        return h ^ (h >>> 16);
+    }
+
+    private void checkKey(ByteBuffer key) {
+        checkOpen();
+        if (key.remaining() != keyWidth) {
+            throw new IllegalArgumentException("Key must be " + keyWidth + " bytes");
+        }
+    }
+
+    private void checkOpen() {
+        if (table == null) {
+            throw new IllegalStateException("Table has been closed");
+        }
+    }
+
+    private ByteBuffer allocate(int size) {
+        return ByteBuffer.allocateDirect(size * slotWidth);
+    }
+
+    /**
+     * Frees a direct buffer through the JDK's cleaner when it is reachable,
+     * otherwise leaves it for the collector.
+     */
+    private static void free(ByteBuffer buffer) {
+        try {
+            Class<?> unsafeClass = Class.forName("sun.misc.Unsafe");
+            Field field = unsafeClass.getDeclaredField("theUnsafe");
+            field.setAccessible(true);
+            Method invokeCleaner = unsafeClass.getMethod("invokeCleaner", ByteBuffer.class);
+            invokeCleaner.invoke(field.get(null), buffer);
+        }
+        catch (ReflectiveOperationException | RuntimeException e) {
+            // the buffer is released once it becomes unreachable
+        }
+    }
+}
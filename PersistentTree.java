@@ -0,0 +1,337 @@
+package edu.sdsu.cs.datastructures;
+
+import java.util.ArrayDeque;
+import java.util.Deque;
+import java.util.Iterator;
+import java.util.NoSuchElementException;
+import java.util.concurrent.atomic.AtomicReference;
+
+/**
+ * A binary search tree whose nodes never change once built.
+ * <p>A write copies only the nodes on the path from the root down to the
+ * key it touches, shares every other subtree with the previous version,
+ * and then publishes the new root with a compare-and-set. The tree is
+ * AVL-balanced, so each write allocates O(log n) new nodes. Readers load
+ * the current root once and work from that version for the whole call or
+ * iteration, without locks and without ever seeing a half-finished write.
+ * Concurrent writers retry their copy if another write is published first.
+ * </p>
+ * <p>Null values are not supported, since getValue uses null to report a
+ * missing key.
+ * </p>
+ *
+ * @param <K> key type, must support comparison with like-type objects
+ * @param <V> value type
+ */
+public class PersistentTree<K extends Comparable<K>, V> implements MapADT<K, V> {
+
+    private final AtomicReference<Node<K, V>> root;
+
+    static final class Node<K, V> {
+        final K key;
+        final V value;
+        final Node<K, V> left;
+        final Node<K, V> right;
+        final int height;
+        final int size;
+
+        Node(K key, V value, Node<K, V> left, Node<K, V> right) {
+            this.key = key;
+            this.value = value;
+            this.left = left;
+            this.right = right;
+            this.height = 1 + Math.max(height(left), height(right));
+            this.size = 1 + size(left) + size(right);
+        }
+    }
+
+    public PersistentTree() {
+        this((Node<K, V>) null);
+    }
+
+    private PersistentTree(Node<K, V> version) {
+        root = new AtomicReference<>(version);
+    }
+
+    /**
+     * Returns true if the map has an object for the corresponding key.
+     *
+     * @param key object to search for
+     * @return true if within map, false otherwise
+     */
+    public boolean contains(K key) {
+        return find(root.get(), key) != null;
+    }
+
+    /**
+     * Adds the given key/value pair to the map.
+     *
+     * @param key   Key to add to the map
+     * @param value Corresponding value to associate with the key
+     * @return the previous value associated with this key or null if new
+     */
+    public V add(K key, V value) {
+        if (value == null) {
+            throw new IllegalArgumentException("Null values are not supported");
+        }
+        while (true) {
+            Node<K, V> current = root.get();
+            Node<K, V> existing = find(current, key);
+            if (existing != null && existing.value == value) {
+                return value;
+            }
+            if (root.compareAndSet(current, insert(current, key, value))) {
+                return existing == null ? null : existing.value;
+            }
+        }
+    }
+
+    /**
+     * Removes the key/value pair identified by the key parameter from the map.
+     *
+     * @param key item to remove
+     * @return true if removed, false if not found or unable to remove
+     */
+    public boolean delete(K key) {
+        while (true) {
+            Node<K, V> current = root.get();
+            if (find(current, key) == null) {
+                return false;
+            }
+            if (root.compareAndSet(current, remove(current, key))) {
+                return true;
+            }
+        }
+    }
+
+    /**
+     * Returns the value associated with the parameter key.
+     *
+     * @param key key to lookup in the map
+     * @return Value associated with key or null if not found
+     */
+    public V getValue(K key) {
+        Node<K, V> node = find(root.get(), key);
+        return node == null ? null : node.value;
+    }
+
+    /**
+     * Returns the first key found with the parameter value.
+     *
+     * @param value value to locate
+     * @return key of first item found with the matching value
+     */
+    public K getKey(V value) {
+        for (InOrder walk = new InOrder(root.get()); walk.hasNext(); ) {
+            Node<K, V> node = walk.next();
+            if (node.value.equals(value)) {
+                return node.key;
+            }
+        }
+        return null;
+    }
+
+    /**
+     * Identifies the maxSize of the map.
+     *
+     * @return Number of entries stored in the map.
+     */
+    public int size() {
+        return size(root.get());
+    }
+
+    /**
+     * Indicates if the map contains nothing.
+     * @return true if the map is empty, as the method cryptically indicates.
+     */
+    public boolean isEmpty() {
+        return root.get() == null;
+    }
+
+    /**
+     * Resets the map to an empty state with no entries.
+     */
+    public void clear() {
+        root.set(null);
+    }
+
+    /**
+     * Provides a key iterator. The iterator walks the version current when
+     * it was created and is unaffected by later writes.
+     * @return Iterator over the keys in sorted order
+     */
+    public Iterator<K> keys() {
+        InOrder walk = new InOrder(root.get());
+        return new Iterator<K>() {
+            @Override
+            public boolean hasNext() {
+                return walk.hasNext();
+            }
+
+            @Override
+            public K next() {
+                return walk.next().key;
+            }
+        };
+    }
+
+    /**
+     * Provides a value iterator. The values arrive corresponding to their
+     * keys in the key order.
+     * @return Iterator over the values.
+     */
+    public Iterator<V> values() {
+        InOrder walk = new InOrder(root.get());
+        return new Iterator<V>() {
+            @Override
+            public boolean hasNext() {
+                return walk.hasNext();
+            }
+
+            @Override
+            public V next() {
+                return walk.next().value;
+            }
+        };
+    }
+
+    /**
+     * Captures the current version in constant time. The snapshot shares
+     * every node with this tree; writes to either one afterward copy their
+     * own paths and are invisible to the other.
+     *
+     * @return an independent tree holding the current entries
+     */
+    public PersistentTree<K, V> snapshot() {
+        return new PersistentTree<>(root.get());
+    }
+
+    /**
+     * Height of the tree, zero when empty.
+     *
+     * @return number of nodes on the longest root-to-leaf path
+     */
+    public int height() {
+        return height(root.get());
+    }
+
+    private final class InOrder implements Iterator<Node<K, V>> {
+        final Deque<Node<K, V>> path = new ArrayDeque<>();
+
+        InOrder(Node<K, V> version) {
+            descend(version);
+        }
+
+        private void descend(Node<K, V> node) {
+            for (; node != null; node = node.left) {
+                path.push(node);
+            }
+        }
+
+        @Override
+        public boolean hasNext() {
+            return !path.isEmpty();
+        }
+
+        @Override
+        public Node<K, V> next() {
+            if (path.isEmpty()) {
+                throw new NoSuchElementException();
+            }
+            Node<K, V> node = path.pop();
+            descend(node.right);
+            return node;
+        }
+    }
+
+    private Node<K, V> find(Node<K, V> node, K key) {
+        while (node != null) {
+            int cmp = key.compareTo(node.key);
+            if (cmp == 0) {
+                return node;
+            }
+            node = cmp < 0 ? node.left : node.right;
+        }
+        return null;
+    }
+
+    private Node<K, V> insert(Node<K, V> node, K key, V value) {
+        if (node == null) {
+            return new Node<>(key, value, null, null);
+        }
+        int cmp = key.compareTo(node.key);
+        if (cmp < 0) {
+            return balance(node.key, node.value, insert(node.left, key, value), node.right);
+        }
+        if (cmp > 0) {
+            return balance(node.key, node.value, node.left, insert(node.right, key, value));
+        }
+        return new Node<>(key, value, node.left, node.right);
+    }
+
+    private Node<K, V> remove(Node<K, V> node, K key) {
+        int cmp = key.compareTo(node.key);
+        if (cmp < 0) {
+            return balance(node.key, node.value, remove(node.left, key), node.right);
+        }
+        if (cmp > 0) {
+            return balance(node.key, node.value, node.left, remove(node.right, key));
+        }
+        if (node.left == null) {
+            return node.right;
+        }
+        if (node.right == null) {
+            return node.left;
+        }
+        Node<K, V> successor = node.right;
+        while (successor.left != null) {
+            successor = successor.left;
+        }
+        return balance(successor.key, successor.value, node.left, removeMin(node.right));
+    }
+
+    private Node<K, V> removeMin(Node<K, V> node) {
+        if (node.left == null) {
+            return node.right;
+        }
+        return balance(node.key, node.value, removeMin(node.left), node.right);
+    }
+
+    /**
+     * Builds the node for key over the given subtrees, rotating as needed
+     * so the result is AVL-balanced. Rotations build fresh nodes rather
+     * than relinking existing ones.
+     */
+    private Node<K, V> balance(K key, V value, Node<K, V> left, Node<K, V> right) {
+        int skew = height(left) - height(right);
+        if (skew > 1) {
+            if (height(left.left) < height(left.right)) {
+                Node<K, V> pivot = left.right;
+                return new Node<>(pivot.key, pivot.value,
+                        new Node<>(left.key, left.value, left.left, pivot.left),
+                        new Node<>(key, value, pivot.right, right));
+            }
+            return new Node<>(left.key, left.value, left.left,
+                    new Node<>(key, value, left.right, right));
+        }
+        if (skew < -1) {
+            if (height(right.right) < height(right.left)) {
+                Node<K, V> pivot = right.left;
+                return new Node<>(pivot.key, pivot.value,
+                        new Node<>(key, value, left, pivot.left),
+                        new Node<>(right.key, right.value, pivot.right, right.right));
+            }
+            return new Node<>(right.key, right.value,
+                    new Node<>(key, value, left, right.left), right.right);
+        }
+        return new Node<>(key, value, left, right);
+    }
+
+    private static int height(Node<?, ?> node) {
+        return node == null ? 0 : node.height;
+    }
+
+    private static int size(Node<?, ?> node) {
+        return node == null ? 0 : node.size;
+    }
+}
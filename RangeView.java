@@ -0,0 +1,197 @@
+package edu.sdsu.cs.datastructures;
+
+import java.util.Iterator;
+import java.util.Objects;
+
+/**
+ * A live window onto the keys of a NavigableMapADT between lo, inclusive,
+ * and hi, exclusive. A null bound leaves that side open. Reads and writes
+ * pass through to the backing map; sizes and positions come from its rank
+ * and select rather than from counting, so they cost what those cost.
+ * BinarySearchTree and AVLTree both hand these out from subMap, headMap
+ * and tailMap.
+ *
+ * @param <K> key type, must support comparison with like-type objects
+ * @param <V> value type
+ */
+final class RangeView<K extends Comparable<K>, V> implements NavigableMapADT<K, V> {
+
+    /**
+     * What the backing map supplies beyond NavigableMapADT: in-order walks
+     * that seek straight to the first key at or above from and stop before
+     * fence, either bound null for an open side.
+     */
+    interface Walks<K, V> {
+        Iterator<K> keys(K from, K fence);
+
+        Iterator<V> values(K from, K fence);
+    }
+
+    private final NavigableMapADT<K, V> map;
+    private final Walks<K, V> walks;
+    private final K lo;
+    private final K hi;
+
+    RangeView(NavigableMapADT<K, V> map, Walks<K, V> walks, K lo, K hi) {
+        this.map = map;
+        this.walks = walks;
+        this.lo = lo;
+        this.hi = hi;
+    }
+
+    private boolean inRange(K key) {
+        return (lo == null || key.compareTo(lo) >= 0)
+                && (hi == null || key.compareTo(hi) < 0);
+    }
+
+    private K bounded(K key) {
+        return (key != null && inRange(key)) ? key : null;
+    }
+
+    private int below() {
+        return (lo == null) ? 0 : map.rank(lo);
+    }
+
+    /**
+     * The largest key strictly below the upper bound, found by position so
+     * it needs nothing from the backing map beyond rank and select.
+     */
+    private K lastBelowHi() {
+        int count = map.rank(hi);
+        return count == 0 ? null : map.select(count - 1);
+    }
+
+    @Override
+    public boolean contains(K key) {
+        return inRange(key) && map.contains(key);
+    }
+
+    @Override
+    public V add(K key, V value) {
+        if (!inRange(key)) {
+            throw new IllegalArgumentException("Key out of range: " + key);
+        }
+        return map.add(key, value);
+    }
+
+    @Override
+    public boolean delete(K key) {
+        return inRange(key) && map.delete(key);
+    }
+
+    @Override
+    public V getValue(K key) {
+        return inRange(key) ? map.getValue(key) : null;
+    }
+
+    @Override
+    public K getKey(V value) {
+        Iterator<K> keys = keys();
+        for (Iterator<V> values = values(); values.hasNext(); ) {
+            K key = keys.next();
+            if (Objects.equals(values.next(), value)) {
+                return key;
+            }
+        }
+        return null;
+    }
+
+    @Override
+    public int size() {
+        int upTo = (hi == null) ? map.size() : map.rank(hi);
+        return upTo - below();
+    }
+
+    @Override
+    public boolean isEmpty() {
+        return firstKey() == null;
+    }
+
+    @Override
+    public void clear() {
+        for (K key = firstKey(); key != null; key = firstKey()) {
+            map.delete(key);
+        }
+    }
+
+    @Override
+    public Iterator<K> keys() {
+        return walks.keys(lo, hi);
+    }
+
+    @Override
+    public Iterator<V> values() {
+        return walks.values(lo, hi);
+    }
+
+    @Override
+    public K floorKey(K key) {
+        if (hi != null && key.compareTo(hi) >= 0) {
+            return bounded(lastBelowHi());
+        }
+        return bounded(map.floorKey(key));
+    }
+
+    @Override
+    public K ceilingKey(K key) {
+        if (lo != null && key.compareTo(lo) < 0) {
+            key = lo;
+        }
+        return bounded(map.ceilingKey(key));
+    }
+
+    @Override
+    public K firstKey() {
+        return bounded(lo == null ? map.firstKey() : map.ceilingKey(lo));
+    }
+
+    @Override
+    public K lastKey() {
+        return bounded(hi == null ? map.lastKey() : lastBelowHi());
+    }
+
+    @Override
+    public int rank(K key) {
+        if (lo != null && key.compareTo(lo) < 0) {
+            return 0;
+        }
+        if (hi != null && key.compareTo(hi) > 0) {
+            key = hi;
+        }
+        return map.rank(key) - below();
+    }
+
+    @Override
+    public K select(int index) {
+        if (index < 0 || index >= size()) {
+            throw new IndexOutOfBoundsException("Index: " + index + ", Size: " + size());
+        }
+        return map.select(below() + index);
+    }
+
+    @Override
+    public NavigableMapADT<K, V> subMap(K fromKey, K toKey) {
+        if (!inRange(fromKey) || (hi != null && toKey.compareTo(hi) > 0)
+                || fromKey.compareTo(toKey) > 0) {
+            throw new IllegalArgumentException("Range out of bounds");
+        }
+        return new RangeView<>(map, walks, fromKey, toKey);
+    }
+
+    @Override
+    public NavigableMapADT<K, V> headMap(K toKey) {
+        if (hi != null && toKey.compareTo(hi) > 0
+                || lo != null && toKey.compareTo(lo) < 0) {
+            throw new IllegalArgumentException("Range out of bounds");
+        }
+        return new RangeView<>(map, walks, lo, toKey);
+    }
+
+    @Override
+    public NavigableMapADT<K, V> tailMap(K fromKey) {
+        if (!inRange(fromKey)) {
+            throw new IllegalArgumentException("Range out of bounds");
+        }
+        return new RangeView<>(map, walks, fromKey, hi);
+    }
+}
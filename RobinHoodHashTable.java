@@ -0,0 +1,305 @@
+package edu.sdsu.cs.datastructures;
+
+import java.util.ConcurrentModificationException;
+import java.util.Iterator;
+import java.util.NoSuchElementException;
+
+/**
+ * An open-addressing hash table using Robin Hood probing.
+ * <p>Keys and values live in flat parallel arrays rather than in per-bucket
+ * lists, so a lookup walks a short run of neighbouring slots instead of
+ * chasing list nodes. On insertion, an entry that has probed further from
+ * its home slot than the resident entry takes the slot and the resident
+ * continues probing, which keeps probe lengths short and even. Deletion
+ * shifts the following run back by one slot, so no tombstones are needed.
+ * </p>
+ *
+ * @param <K> key type, must support comparison with like-type objects
+ * @param <V> value type
+ */
+public class RobinHoodHashTable<K extends Comparable<K>, V> implements MapADT<K, V> {
+
+    private static final int DEFAULTSIZE = 8;
+    private static final double MAX_LOAD = .75;
+    private static final double MIN_LOAD = .15;
+
+    private K[] keyTable;
+    private V[] valueTable;
+    private int[] hashTable;
+    private int mask;
+    private int currSize = 0;
+    private int modCount = 0;
+
+    public RobinHoodHashTable() {
+        this(DEFAULTSIZE);
+    }
+
+    public RobinHoodHashTable(int initial) {
+        allocate(tableSizeFor(initial));
+    }
+
+    /**
+     * Returns true if the map has an object for the corresponding key.
+     *
+     * @param key object to search for
+     * @return true if within map, false otherwise
+     */
+    public boolean contains(K key) {
+        return find(key) >= 0;
+    }
+
+    /**
+     * Adds the given key/value pair to the map.
+     *
+     * @param key   Key to add to the map
+     * @param value Corresponding value to associate with the key
+     * @return the previous value associated with this key or null if new
+     */
+    public V add(K key, V value) {
+        int hash = spread(key.hashCode());
+        int slot = hash & mask;
+        int dist = 0;
+        while (keyTable[slot] != null) {
+            if (hashTable[slot] == hash && keyTable[slot].equals(key)) {
+                V old = valueTable[slot];
+                valueTable[slot] = value;
+                return old;
+            }
+            if (probeDistance(slot) < dist) {
+                break;
+            }
+            slot = (slot + 1) & mask;
+            dist++;
+        }
+        insert(key, value, hash, slot, dist);
+        currSize++;
+        modCount++;
+        if (currSize > MAX_LOAD * keyTable.length) {
+            resize(keyTable.length << 1);
+        }
+        return null;
+    }
+
+    /**
+     * Removes the key/value pair identified by the key parameter from the map.
+     *
+     * @param key item to remove
+     * @return true if removed, false if not found or unable to remove
+     */
+    public boolean delete(K key) {
+        int slot = find(key);
+        if (slot < 0) {
+            return false;
+        }
+        int next = (slot + 1) & mask;
+        while (keyTable[next] != null && probeDistance(next) > 0) {
+            keyTable[slot] = keyTable[next];
+            valueTable[slot] = valueTable[next];
+            hashTable[slot] = hashTable[next];
+            slot = next;
+            next = (next + 1) & mask;
+        }
+        keyTable[slot] = null;
+        valueTable[slot] = null;
+        currSize--;
+        modCount++;
+        if (keyTable.length > DEFAULTSIZE && currSize < MIN_LOAD * keyTable.length) {
+            resize(keyTable.length >> 1);
+        }
+        return true;
+    }
+
+    /**
+     * Returns the value associated with the parameter key.
+     *
+     * @param key key to lookup in the map
+     * @return Value associated with key or null if not found
+     */
+    public V getValue(K key) {
+        int slot = find(key);
+        return slot < 0 ? null : valueTable[slot];
+    }
+
+    /**
+     * Returns the first key found with the parameter value.
+     *
+     * @param value value to locate
+     * @return key of first item found with the matching value
+     */
+    public K getKey(V value) {
+        for (int i = 0; i < keyTable.length; i++) {
+            if (keyTable[i] != null && valueTable[i].equals(value)) {
+                return keyTable[i];
+            }
+        }
+        return null;
+    }
+
+    /**
+     * Identifies the maxSize of the map.
+     *
+     * @return Number of entries stored in the map.
+     */
+    public int size() {
+        return currSize;
+    }
+
+    /**
+     * Indicates if the map contains nothing.
+     *
+     * @return true if the map is empty, as the method cryptically indicates.
+     */
+    public boolean isEmpty() {
+        return currSize == 0;
+    }
+
+    /**
+     * Resets the map to an empty state with no entries.
+     */
+    public void clear() {
+        allocate(DEFAULTSIZE);
+        currSize = 0;
+        modCount++;
+    }
+
+    /**
+     * Provides a key iterator.
+     *
+     * @return Iterator over the keys (some data structures provided sorted)
+     */
+    public Iterator<K> keys() {
+        return new SlotIterator<K>() {
+            @Override
+            K at(int slot) {
+                return keyTable[slot];
+            }
+        };
+    }
+
+    /**
+     * Provides a value iterator. The values arrive corresponding to their
+     * keys in the key order.
+     *
+     * @return Iterator over the values.
+     */
+    public Iterator<V> values() {
+        return new SlotIterator<V>() {
+            @Override
+            V at(int slot) {
+                return valueTable[slot];
+            }
+        };
+    }
+
+    /**
+     * Walks the occupied slots in table order. A resize moves every entry
+     * to new arrays, so any change to the map after the iterator is created
+     * fails fast rather than leaving it reading slots that no longer hold
+     * the map's entries.
+     */
+    private abstract class SlotIterator<T> implements Iterator<T> {
+        final K[] table = keyTable;
+        final int expectedModCount = modCount;
+        int slot = advance(0);
+
+        abstract T at(int slot);
+
+        private int advance(int from) {
+            while (from < table.length && table[from] == null) {
+                from++;
+            }
+            return from;
+        }
+
+        @Override
+        public boolean hasNext() {
+            return slot < table.length;
+        }
+
+        @Override
+        public T next() {
+            if (modCount != expectedModCount) {
+                throw new ConcurrentModificationException();
+            }
+            if (!hasNext()) {
+                throw new NoSuchElementException();
+            }
+            T item = at(slot);
+            slot = advance(slot + 1);
+            return item;
+        }
+    }
+
+    private int find(K key) {
+        int hash = spread(key.hashCode());
+        int slot = hash & mask;
+        int dist = 0;
+        while (keyTable[slot] != null && probeDistance(slot) >= dist) {
+            if (hashTable[slot] == hash && keyTable[slot].equals(key)) {
+                return slot;
+            }
+            slot = (slot + 1) & mask;
+            dist++;
+        }
+        return -1;
+    }
+
+    private void insert(K key, V value, int hash, int slot, int dist) {
+        while (keyTable[slot] != null) {
+            int residentDist = probeDistance(slot);
+            if (residentDist < dist) {
+                K k = keyTable[slot];
+                V v = valueTable[slot];
+                int h = hashTable[slot];
+                keyTable[slot] = key;
+                valueTable[slot] = value;
+                hashTable[slot] = hash;
+                key = k;
+                value = v;
+                hash = h;
+                dist = residentDist;
+            }
+            slot = (slot + 1) & mask;
+            dist++;
+        }
+        keyTable[slot] = key;
+        valueTable[slot] = value;
+        hashTable[slot] = hash;
+    }
+
+    private int probeDistance(int slot) {
+        return (slot - (hashTable[slot] & mask)) & mask;
+    }
+
+    private void resize(int newSize) {
+        K[] oldKeys = keyTable;
+        V[] oldValues = valueTable;
+        int[] oldHashes = hashTable;
+        allocate(newSize);
+        for (int i = 0; i < oldKeys.length; i++) {
+            if (oldKeys[i] != null) {
+                insert(oldKeys[i], oldValues[i], oldHashes[i], oldHashes[i] & mask, 0);
+            }
+        }
+    }
+
+    @SuppressWarnings("unchecked")
+    private void allocate(int size) {
+        keyTable = (K[]) new Comparable<?>[size];
+        valueTable = (V[]) new Object[size];
+        hashTable = new int[size];
+        mask = size - 1;
+    }
+
+    private static int spread(int h) {
+        return h ^ (h >>> 16);
+    }
+
+    private static int tableSizeFor(int n) {
+        int size = DEFAULTSIZE;
+        while (size < n && size < (1 << 30)) {
+            size <<= 1;
+        }
+        return size;
+    }
+}
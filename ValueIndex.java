@@ -0,0 +1,95 @@
+package edu.sdsu.cs.datastructures;
+
+import java.util.HashMap;
+import java.util.Map;
+import java.util.Objects;
+import java.util.TreeMap;
+
+/**
+ * A reverse index from values to the keys holding them.
+ * <p>Maps maintain one of these alongside their entries when asked to, so
+ * that getKey becomes a lookup instead of a scan over every entry. Each key
+ * remembers when it received its current value, and the policy decides
+ * which of several keys sharing a value getKey reports.
+ * </p>
+ *
+ * @param <K> key type
+ * @param <V> value type
+ */
+public class ValueIndex<K, V> {
+
+    /**
+     * Chooses which key getKey reports when several hold the same value.
+     */
+    public enum Policy {
+        /** The key that has held the value the longest. */
+        FIRST_INSERTED,
+        /** The key that most recently received the value. */
+        LAST_INSERTED
+    }
+
+    private final Policy policy;
+    private final Map<V, TreeMap<Long, K>> byValue = new HashMap<>();
+    private final Map<K, Long> sequence = new HashMap<>();
+    private long counter = 0;
+
+    ValueIndex(Policy policy) {
+        if (policy == null) {
+            throw new IllegalArgumentException("Policy must not be null");
+        }
+        this.policy = policy;
+    }
+
+    /**
+     * Records that the key now holds the value.
+     */
+    void add(K key, V value) {
+        long seq = counter++;
+        sequence.put(key, seq);
+        byValue.computeIfAbsent(value, v -> new TreeMap<>()).put(seq, key);
+    }
+
+    /**
+     * Forgets that the key held the value.
+     */
+    void remove(K key, V value) {
+        Long seq = sequence.remove(key);
+        if (seq == null) {
+            return;
+        }
+        TreeMap<Long, K> keys = byValue.get(value);
+        if (keys != null) {
+            keys.remove(seq);
+            if (keys.isEmpty()) {
+                byValue.remove(value);
+            }
+        }
+    }
+
+    /**
+     * Moves the key from its old value to its new one. Re-putting the same
+     * value keeps the key's place, so FIRST_INSERTED still reports the key
+     * that has held the value longest.
+     */
+    void update(K key, V oldValue, V newValue) {
+        if (Objects.equals(oldValue, newValue)) {
+            return;
+        }
+        remove(key, oldValue);
+        add(key, newValue);
+    }
+
+    K getKey(V value) {
+        TreeMap<Long, K> keys = byValue.get(value);
+        if (keys == null) {
+            return null;
+        }
+        return policy == Policy.FIRST_INSERTED ? keys.firstEntry().getValue()
+                : keys.lastEntry().getValue();
+    }
+
+    void clear() {
+        byValue.clear();
+        sequence.clear();
+    }
+}
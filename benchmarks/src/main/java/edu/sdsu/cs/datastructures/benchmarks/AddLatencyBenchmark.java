@@ -0,0 +1,58 @@
+package edu.sdsu.cs.datastructures.benchmarks;
+
+import edu.sdsu.cs.datastructures.MapADT;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Distribution of single add latencies while a hash table grows from empty
+ * to size keys, to show the pauses a stop-the-world resize causes and
+ * whether incremental rehashing removes them. Read the p99 and p99.99 rows
+ * rather than the mean. The table starts over whenever it reaches size.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.SampleTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 2)
+@Fork(value = 1, jvmArgsAppend = {"-Xms4g", "-Xmx4g"})
+public class AddLatencyBenchmark {
+
+    @Param({"HASH_TABLE", "HASH_TABLE_INCREMENTAL", "ROBIN_HOOD_HASH_TABLE", "JDK_HASH_MAP"})
+    public Impl impl;
+
+    @Param({"1000000"})
+    public int size;
+
+    private MapData data;
+    private MapADT<Long, Long> map;
+    private int cursor;
+
+    @Setup(Level.Trial)
+    public void setUp() {
+        data = new MapData(KeyDistribution.RANDOM, size);
+        map = impl.create();
+    }
+
+    @Benchmark
+    public Long add() {
+        if (cursor == size) {
+            map = impl.create();
+            cursor = 0;
+        }
+        int i = cursor++;
+        return map.add(data.keys[i], data.values[i]);
+    }
+}
@@ -0,0 +1,79 @@
+package edu.sdsu.cs.datastructures.benchmarks;
+
+import edu.sdsu.cs.datastructures.MapADT;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Warmup;
+
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Whole-map cost of add and delete: filling an empty map with size keys in
+ * the distribution's insertion order, and deleting them all again. Each
+ * invocation is timed once, so growth, rebalancing and shrinking are all
+ * part of the measurement. Divide by size for the cost per call.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.SingleShotTime)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Warmup(iterations = 3)
+@Measurement(iterations = 5)
+@Fork(value = 1, jvmArgsAppend = {"-Xms4g", "-Xmx4g"})
+public class BuildBenchmark {
+
+    @Param({"HASH_TABLE", "HASH_TABLE_INCREMENTAL", "ROBIN_HOOD_HASH_TABLE", "CONCURRENT_HASH_TABLE",
+            "ADAPTIVE_MAP", "BINARY_SEARCH_TREE", "ARENA_TREE", "AVL_TREE", "B_PLUS_TREE", "PERSISTENT_TREE",
+            "CONCURRENT_SKIP_LIST", "DISK_B_PLUS_TREE", "JDK_HASH_MAP", "JDK_TREE_MAP"})
+    public Impl impl;
+
+    @Param({"1000", "10000", "100000", "1000000", "10000000"})
+    public int size;
+
+    @Param({"RANDOM", "SORTED", "REVERSED", "ZIPFIAN", "COLLIDING"})
+    public KeyDistribution distribution;
+
+    private MapData data;
+    private MapADT<Long, Long> empty;
+    private MapADT<Long, Long> full;
+
+    @Setup(Level.Trial)
+    public void setUpData() {
+        impl.checkFeasible(distribution, size);
+        data = new MapData(distribution, size);
+    }
+
+    @Setup(Level.Invocation)
+    public void setUpMaps() {
+        empty = impl.create();
+        full = data.fill(impl.create());
+    }
+
+    @TearDown(Level.Invocation)
+    public void tearDownMaps() {
+        Impl.release(empty);
+        Impl.release(full);
+    }
+
+    @Benchmark
+    public MapADT<Long, Long> add() {
+        return data.fill(empty);
+    }
+
+    @Benchmark
+    public MapADT<Long, Long> delete() {
+        for (int i : data.insertionOrder) {
+            full.delete(data.keys[i]);
+        }
+        return full;
+    }
+}
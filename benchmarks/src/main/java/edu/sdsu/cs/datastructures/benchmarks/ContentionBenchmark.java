@@ -0,0 +1,97 @@
+package edu.sdsu.cs.datastructures.benchmarks;
+
+import edu.sdsu.cs.datastructures.MapADT;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Threads;
+import org.openjdk.jmh.annotations.Warmup;
+
+import java.util.SplittableRandom;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Throughput of a shared map under a mix of reads and writes from 1, 4, 16
+ * and 64 threads. Keys are drawn from twice the prefilled range, so about
+ * half the reads hit and the writes split evenly between adds and deletes,
+ * holding the size steady.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(value = 1, jvmArgsAppend = {"-Xms4g", "-Xmx4g"})
+public class ContentionBenchmark {
+
+    @Param({"CONCURRENT_HASH_TABLE", "CONCURRENT_SKIP_LIST", "SYNCHRONIZED_HASH_TABLE",
+            "JDK_CONCURRENT_HASH_MAP", "JDK_CONCURRENT_SKIP_LIST_MAP"})
+    public Impl impl;
+
+    @Param({"100000"})
+    public int size;
+
+    @Param({"50", "90", "99"})
+    public int readPercent;
+
+    private MapData data;
+    private MapADT<Long, Long> map;
+
+    @State(Scope.Thread)
+    public static class Worker {
+        final SplittableRandom random = new SplittableRandom();
+    }
+
+    @Setup(Level.Trial)
+    public void setUp() {
+        data = new MapData(KeyDistribution.RANDOM, 2 * size);
+        map = impl.create();
+        for (int i = 0; i < size; i++) {
+            map.add(data.keys[2 * i], data.values[2 * i]);
+        }
+    }
+
+    private Object operation(Worker worker) {
+        int i = worker.random.nextInt(data.keys.length);
+        int roll = worker.random.nextInt(100);
+        if (roll < readPercent) {
+            return map.getValue(data.keys[i]);
+        }
+        if ((roll & 1) == 0) {
+            return map.add(data.keys[i], data.values[i]);
+        }
+        return map.delete(data.keys[i]);
+    }
+
+    @Benchmark
+    @Threads(1)
+    public Object threads1(Worker worker) {
+        return operation(worker);
+    }
+
+    @Benchmark
+    @Threads(4)
+    public Object threads4(Worker worker) {
+        return operation(worker);
+    }
+
+    @Benchmark
+    @Threads(16)
+    public Object threads16(Worker worker) {
+        return operation(worker);
+    }
+
+    @Benchmark
+    @Threads(64)
+    public Object threads64(Worker worker) {
+        return operation(worker);
+    }
+}
@@ -0,0 +1,255 @@
+package edu.sdsu.cs.datastructures.benchmarks;
+
+import edu.sdsu.cs.datastructures.AVLTree;
+import edu.sdsu.cs.datastructures.AdaptiveMap;
+import edu.sdsu.cs.datastructures.ArenaTree;
+import edu.sdsu.cs.datastructures.BPlusTree;
+import edu.sdsu.cs.datastructures.BinarySearchTree;
+import edu.sdsu.cs.datastructures.ConcurrentHashTable;
+import edu.sdsu.cs.datastructures.ConcurrentSkipList;
+import edu.sdsu.cs.datastructures.DiskBPlusTree;
+import edu.sdsu.cs.datastructures.HashTable;
+import edu.sdsu.cs.datastructures.MapADT;
+import edu.sdsu.cs.datastructures.MappedHashTable;
+import edu.sdsu.cs.datastructures.PersistentTree;
+import edu.sdsu.cs.datastructures.RobinHoodHashTable;
+
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.HashMap;
+import java.util.TreeMap;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentSkipListMap;
+
+/**
+ * Every MapADT under measurement, plus the JDK maps they are compared
+ * against. Benchmarks name the constants they cover in their impl
+ * parameter.
+ */
+public enum Impl {
+    HASH_TABLE(true, true) {
+        @Override
+        MapADT<Long, Long> create() {
+            return new HashTable<>();
+        }
+    },
+    HASH_TABLE_INCREMENTAL(true, true) {
+        @Override
+        MapADT<Long, Long> create() {
+            return new HashTable<>(3, true, true);
+        }
+    },
+    ROBIN_HOOD_HASH_TABLE(true, false) {
+        @Override
+        MapADT<Long, Long> create() {
+            return new RobinHoodHashTable<>();
+        }
+    },
+    CONCURRENT_HASH_TABLE(true, false) {
+        @Override
+        MapADT<Long, Long> create() {
+            return new ConcurrentHashTable<>();
+        }
+    },
+    SYNCHRONIZED_HASH_TABLE(true, true) {
+        @Override
+        MapADT<Long, Long> create() {
+            return new SynchronizedMap<>(new HashTable<Long, Long>());
+        }
+    },
+    BINARY_SEARCH_TREE(false, true) {
+        @Override
+        MapADT<Long, Long> create() {
+            return new BinarySearchTree<>();
+        }
+    },
+    ADAPTIVE_MAP(true, true) {
+        @Override
+        MapADT<Long, Long> create() {
+            return new AdaptiveMap<>();
+        }
+    },
+    ARENA_TREE(false, true) {
+        @Override
+        MapADT<Long, Long> create() {
+            return new ArenaTree<>();
+        }
+    },
+    AVL_TREE(true, true) {
+        @Override
+        MapADT<Long, Long> create() {
+            return new AVLTree<>();
+        }
+    },
+    B_PLUS_TREE(true, true) {
+        @Override
+        MapADT<Long, Long> create() {
+            return new BPlusTree<>();
+        }
+    },
+    PERSISTENT_TREE(true, true) {
+        @Override
+        MapADT<Long, Long> create() {
+            return new PersistentTree<>();
+        }
+    },
+    CONCURRENT_SKIP_LIST(true, true) {
+        @Override
+        MapADT<Long, Long> create() {
+            return new ConcurrentSkipList<>();
+        }
+    },
+    DISK_B_PLUS_TREE(true, true) {
+        @Override
+        MapADT<Long, Long> create() {
+            try {
+                return new ScratchTree(Files.createTempFile("bench", ".bpt"));
+            }
+            catch (IOException e) {
+                throw new UncheckedIOException(e);
+            }
+        }
+    },
+    MAPPED_HASH_TABLE(true, true) {
+        @Override
+        MapADT<Long, Long> create() {
+            return mapped(new HashTable<>());
+        }
+
+        @Override
+        MapADT<Long, Long> load(MapData data) {
+            HashTable<Long, Long> table = new HashTable<>();
+            data.fill(table);
+            return mapped(table);
+        }
+    },
+    JDK_HASH_MAP(true, true) {
+        @Override
+        MapADT<Long, Long> create() {
+            return new JdkMap<>(new HashMap<Long, Long>());
+        }
+    },
+    JDK_TREE_MAP(true, true) {
+        @Override
+        MapADT<Long, Long> create() {
+            return new JdkMap<>(new TreeMap<Long, Long>());
+        }
+    },
+    JDK_CONCURRENT_HASH_MAP(true, true) {
+        @Override
+        MapADT<Long, Long> create() {
+            return new JdkMap<>(new ConcurrentHashMap<Long, Long>());
+        }
+    },
+    JDK_CONCURRENT_SKIP_LIST_MAP(true, true) {
+        @Override
+        MapADT<Long, Long> create() {
+            return new JdkMap<>(new ConcurrentSkipListMap<Long, Long>());
+        }
+    };
+
+    /**
+     * Above this many keys, combinations that go quadratic are refused
+     * rather than left to run for hours.
+     */
+    static final int QUADRATIC_LIMIT = 100_000;
+
+    private final boolean balanced;
+    private final boolean collisionSafe;
+
+    Impl(boolean balanced, boolean collisionSafe) {
+        this.balanced = balanced;
+        this.collisionSafe = collisionSafe;
+    }
+
+    abstract MapADT<Long, Long> create();
+
+    /**
+     * Builds a map holding the given data. Most maps are simply filled by
+     * adding each key; a mapped table must be written out and mapped back
+     * in, since adding to it copies it onto the heap.
+     */
+    MapADT<Long, Long> load(MapData data) {
+        return data.fill(create());
+    }
+
+    /**
+     * Refuses combinations whose setup alone would take quadratic time:
+     * unbalanced trees fed ordered keys, and tables without treeified
+     * buckets fed keys that all share one hash code.
+     *
+     * @throws IllegalStateException naming the skipped combination
+     */
+    void checkFeasible(KeyDistribution distribution, int size) {
+        if (size <= QUADRATIC_LIMIT) {
+            return;
+        }
+        if ((!balanced && distribution.ordered()) || (!collisionSafe && distribution == KeyDistribution.COLLIDING)) {
+            throw new IllegalStateException("Skipping " + this + " with " + size + " "
+                    + distribution + " keys: quadratic setup");
+        }
+    }
+
+    /**
+     * Snapshots a table to a scratch file and maps it. The file is deleted
+     * once mapped; the mapping keeps its contents readable.
+     */
+    private static MapADT<Long, Long> mapped(HashTable<Long, Long> table) {
+        try {
+            Path file = Files.createTempFile("bench", ".snap");
+            try {
+                table.writeSnapshot(file, MappedHashTable.Codec.LONG, MappedHashTable.Codec.LONG);
+                return MappedHashTable.open(file, MappedHashTable.Codec.LONG, MappedHashTable.Codec.LONG);
+            }
+            finally {
+                Files.deleteIfExists(file);
+            }
+        }
+        catch (IOException e) {
+            throw new UncheckedIOException(e);
+        }
+    }
+
+    /**
+     * A disk tree in a scratch file that is deleted when the tree closes.
+     */
+    private static final class ScratchTree extends DiskBPlusTree<Long, Long> {
+        private final Path file;
+
+        ScratchTree(Path file) throws IOException {
+            super(emptied(file), MappedHashTable.Codec.LONG, MappedHashTable.Codec.LONG);
+            this.file = file;
+        }
+
+        private static Path emptied(Path file) throws IOException {
+            Files.delete(file);
+            return file;
+        }
+
+        @Override
+        public void close() throws IOException {
+            try {
+                super.close();
+            }
+            finally {
+                Files.deleteIfExists(file);
+            }
+        }
+    }
+
+    /**
+     * Releases files or memory held by a map from create().
+     */
+    static void release(MapADT<Long, Long> map) {
+        if (map instanceof AutoCloseable) {
+            try {
+                ((AutoCloseable) map).close();
+            }
+            catch (Exception e) {
+                throw new IllegalStateException(e);
+            }
+        }
+    }
+}
@@ -0,0 +1,75 @@
+package edu.sdsu.cs.datastructures.benchmarks;
+
+import edu.sdsu.cs.datastructures.MapADT;
+
+import java.util.Iterator;
+import java.util.Map;
+import java.util.Objects;
+
+/**
+ * Presents a java.util.Map as a MapADT so the JDK maps can be measured
+ * alongside the implementations in this project.
+ */
+final class JdkMap<K extends Comparable<K>, V> implements MapADT<K, V> {
+
+    private final Map<K, V> map;
+
+    JdkMap(Map<K, V> map) {
+        this.map = map;
+    }
+
+    @Override
+    public boolean contains(K key) {
+        return map.containsKey(key);
+    }
+
+    @Override
+    public V add(K key, V value) {
+        return map.put(key, value);
+    }
+
+    @Override
+    public boolean delete(K key) {
+        return map.remove(key) != null;
+    }
+
+    @Override
+    public V getValue(K key) {
+        return map.get(key);
+    }
+
+    @Override
+    public K getKey(V value) {
+        for (Map.Entry<K, V> entry : map.entrySet()) {
+            if (Objects.equals(entry.getValue(), value)) {
+                return entry.getKey();
+            }
+        }
+        return null;
+    }
+
+    @Override
+    public int size() {
+        return map.size();
+    }
+
+    @Override
+    public boolean isEmpty() {
+        return map.isEmpty();
+    }
+
+    @Override
+    public void clear() {
+        map.clear();
+    }
+
+    @Override
+    public Iterator<K> keys() {
+        return map.keySet().iterator();
+    }
+
+    @Override
+    public Iterator<V> values() {
+        return map.values().iterator();
+    }
+}
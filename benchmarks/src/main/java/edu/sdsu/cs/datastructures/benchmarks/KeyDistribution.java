@@ -0,0 +1,139 @@
+package edu.sdsu.cs.datastructures.benchmarks;
+
+import java.util.SplittableRandom;
+
+/**
+ * How benchmark keys are chosen, inserted and looked up.
+ * <p>Key i is a fixed function of i, so keys beyond the populated range are
+ * guaranteed misses. Lookups pick populated positions: uniformly for
+ * RANDOM and COLLIDING, in ascending key order for SORTED and REVERSED, and
+ * with a Zipfian skew for ZIPFIAN so a few hot keys take most lookups.
+ * </p>
+ */
+public enum KeyDistribution {
+    /** Scrambled keys, inserted and looked up in random order. */
+    RANDOM,
+    /** Keys 0..n-1 inserted in ascending order. */
+    SORTED,
+    /** Keys 0..n-1 inserted in descending order. */
+    REVERSED,
+    /** Scrambled keys with Zipfian (s = 0.99) lookup frequencies. */
+    ZIPFIAN,
+    /** Distinct keys that all share Long hash code 0, inserted in random order. */
+    COLLIDING;
+
+    private static final double ZIPF_EXPONENT = 0.99;
+
+    long key(long i) {
+        switch (this) {
+            case SORTED:
+            case REVERSED:
+                return i;
+            case COLLIDING:
+                return (i << 32) | i;
+            default:
+                return mix(i);
+        }
+    }
+
+    boolean ordered() {
+        return this == SORTED || this == REVERSED;
+    }
+
+    /**
+     * Positions 0..n-1 in the order their keys are inserted.
+     */
+    int[] insertionOrder(int n, long seed) {
+        int[] order = new int[n];
+        for (int i = 0; i < n; i++) {
+            order[i] = this == REVERSED ? n - 1 - i : i;
+        }
+        if (this == COLLIDING) {
+            SplittableRandom random = new SplittableRandom(seed);
+            for (int i = n - 1; i > 0; i--) {
+                int j = random.nextInt(i + 1);
+                int swap = order[i];
+                order[i] = order[j];
+                order[j] = swap;
+            }
+        }
+        return order;
+    }
+
+    /**
+     * Populated positions to look up, count of them, in the pattern this
+     * distribution calls for.
+     */
+    int[] probes(int n, int count, long seed) {
+        int[] probes = new int[count];
+        SplittableRandom random = new SplittableRandom(seed);
+        if (ordered()) {
+            for (int i = 0; i < count; i++) {
+                probes[i] = (int) ((long) i * n / count);
+            }
+        }
+        else if (this == ZIPFIAN) {
+            Zipf zipf = new Zipf(n, ZIPF_EXPONENT);
+            for (int i = 0; i < count; i++) {
+                probes[i] = zipf.next(random);
+            }
+        }
+        else {
+            for (int i = 0; i < count; i++) {
+                probes[i] = random.nextInt(n);
+            }
+        }
+        return probes;
+    }
+
+    /**
+     * The splitmix64 finalizer, a bijection on longs, so distinct positions
+     * give distinct keys.
+     */
+    private static long mix(long z) {
+        z = (z ^ (z >>> 30)) * 0xbf58476d1ce4e5b9L;
+        z = (z ^ (z >>> 27)) * 0x94d049bb133111ebL;
+        return z ^ (z >>> 31);
+    }
+
+    /**
+     * Draws ranks 0..n-1 with probability proportional to 1 / (rank + 1)^s,
+     * using the rejection-free method of Gray et al. that YCSB also uses.
+     */
+    private static final class Zipf {
+        final int n;
+        final double theta;
+        final double alpha;
+        final double zetan;
+        final double eta;
+
+        Zipf(int n, double theta) {
+            this.n = n;
+            this.theta = theta;
+            double zeta2 = zeta(2, theta);
+            zetan = zeta(n, theta);
+            alpha = 1.0 / (1.0 - theta);
+            eta = (1 - Math.pow(2.0 / n, 1 - theta)) / (1 - zeta2 / zetan);
+        }
+
+        int next(SplittableRandom random) {
+            double u = random.nextDouble();
+            double uz = u * zetan;
+            if (uz < 1.0) {
+                return 0;
+            }
+            if (uz < 1.0 + Math.pow(0.5, theta)) {
+                return Math.min(1, n - 1);
+            }
+            return (int) Math.min(n - 1, (long) (n * Math.pow(eta * u - eta + 1, alpha)));
+        }
+
+        private static double zeta(long n, double theta) {
+            double sum = 0;
+            for (long i = 1; i <= n; i++) {
+                sum += 1.0 / Math.pow(i, theta);
+            }
+            return sum;
+        }
+    }
+}
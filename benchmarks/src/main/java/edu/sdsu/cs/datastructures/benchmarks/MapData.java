@@ -0,0 +1,40 @@
+package edu.sdsu.cs.datastructures.benchmarks;
+
+import edu.sdsu.cs.datastructures.MapADT;
+
+/**
+ * Keys, values and lookup positions for one benchmark configuration, boxed
+ * up front so the measured code allocates only what the map itself does.
+ */
+final class MapData {
+
+    static final int PROBES = 1 << 16;
+
+    final Long[] keys;
+    final Long[] values;
+    final Long[] absent;
+    final int[] insertionOrder;
+    final int[] probes;
+
+    MapData(KeyDistribution distribution, int size) {
+        keys = new Long[size];
+        values = new Long[size];
+        for (int i = 0; i < size; i++) {
+            keys[i] = distribution.key(i);
+            values[i] = (long) i;
+        }
+        absent = new Long[PROBES];
+        for (int i = 0; i < PROBES; i++) {
+            absent[i] = distribution.key((long) size + i);
+        }
+        insertionOrder = distribution.insertionOrder(size, 42);
+        probes = distribution.probes(size, PROBES, 7);
+    }
+
+    MapADT<Long, Long> fill(MapADT<Long, Long> map) {
+        for (int i : insertionOrder) {
+            map.add(keys[i], values[i]);
+        }
+        return map;
+    }
+}
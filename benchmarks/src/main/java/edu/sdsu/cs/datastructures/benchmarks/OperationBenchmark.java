@@ -0,0 +1,107 @@
+package edu.sdsu.cs.datastructures.benchmarks;
+
+import edu.sdsu.cs.datastructures.MapADT;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Warmup;
+import org.openjdk.jmh.infra.Blackhole;
+
+import java.util.Iterator;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Per-call cost of the read operations on a map already holding size keys:
+ * getValue and contains on present and absent keys, getKey, and a full
+ * pass over keys() and values(). delete leaves the map as it found it by
+ * adding the key straight back. For MAPPED_HASH_TABLE that first delete
+ * copies the snapshot onto the heap, so its deleteThenAdd figures measure
+ * the HashTable it becomes.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(value = 1, jvmArgsAppend = {"-Xms4g", "-Xmx4g"})
+public class OperationBenchmark {
+
+    @Param({"HASH_TABLE", "HASH_TABLE_INCREMENTAL", "ROBIN_HOOD_HASH_TABLE", "CONCURRENT_HASH_TABLE",
+            "SYNCHRONIZED_HASH_TABLE", "ADAPTIVE_MAP", "BINARY_SEARCH_TREE", "ARENA_TREE", "AVL_TREE",
+            "B_PLUS_TREE", "PERSISTENT_TREE", "CONCURRENT_SKIP_LIST", "DISK_B_PLUS_TREE", "MAPPED_HASH_TABLE",
+            "JDK_HASH_MAP", "JDK_TREE_MAP", "JDK_CONCURRENT_HASH_MAP", "JDK_CONCURRENT_SKIP_LIST_MAP"})
+    public Impl impl;
+
+    @Param({"1000", "10000", "100000", "1000000", "10000000"})
+    public int size;
+
+    @Param({"RANDOM", "SORTED", "REVERSED", "ZIPFIAN", "COLLIDING"})
+    public KeyDistribution distribution;
+
+    private MapData data;
+    private MapADT<Long, Long> map;
+    private int cursor;
+
+    @Setup(Level.Trial)
+    public void setUp() {
+        impl.checkFeasible(distribution, size);
+        data = new MapData(distribution, size);
+        map = impl.load(data);
+    }
+
+    @TearDown(Level.Trial)
+    public void tearDown() {
+        Impl.release(map);
+    }
+
+    private int next() {
+        return cursor++ & (MapData.PROBES - 1);
+    }
+
+    @Benchmark
+    public Long getValue() {
+        return map.getValue(data.keys[data.probes[next()]]);
+    }
+
+    @Benchmark
+    public boolean containsPresent() {
+        return map.contains(data.keys[data.probes[next()]]);
+    }
+
+    @Benchmark
+    public boolean containsAbsent() {
+        return map.contains(data.absent[next()]);
+    }
+
+    @Benchmark
+    public Long getKey() {
+        return map.getKey(data.values[data.probes[next()]]);
+    }
+
+    @Benchmark
+    public Long deleteThenAdd() {
+        int probe = data.probes[next()];
+        map.delete(data.keys[probe]);
+        return map.add(data.keys[probe], data.values[probe]);
+    }
+
+    @Benchmark
+    @OutputTimeUnit(TimeUnit.MICROSECONDS)
+    public void iterate(Blackhole blackhole) {
+        for (Iterator<Long> keys = map.keys(); keys.hasNext(); ) {
+            blackhole.consume(keys.next());
+        }
+        for (Iterator<Long> values = map.values(); values.hasNext(); ) {
+            blackhole.consume(values.next());
+        }
+    }
+}
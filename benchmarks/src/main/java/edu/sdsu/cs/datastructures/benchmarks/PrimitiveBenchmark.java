@@ -0,0 +1,183 @@
+package edu.sdsu.cs.datastructures.benchmarks;
+
+import edu.sdsu.cs.datastructures.HashTable;
+import edu.sdsu.cs.datastructures.LongHashTable;
+import edu.sdsu.cs.datastructures.LongLongHashTable;
+import edu.sdsu.cs.datastructures.OffHeapHashTable;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Warmup;
+
+import java.nio.ByteBuffer;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * The long-keyed tables that sit outside MapADT, against HashTable with
+ * boxed Long keys and values. Run with -prof gc to compare the bytes each
+ * one allocates per lookup and per fill.
+ */
+@State(Scope.Benchmark)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(value = 1, jvmArgsAppend = {"-Xms4g", "-Xmx4g"})
+public class PrimitiveBenchmark {
+
+    public enum Kind {
+        LONG_LONG_HASH_TABLE {
+            @Override
+            Table create() {
+                LongLongHashTable table = new LongLongHashTable();
+                return new Table() {
+                    @Override
+                    void add(long key, long value) {
+                        table.add(key, value);
+                    }
+
+                    @Override
+                    long get(long key) {
+                        return table.getValue(key);
+                    }
+                };
+            }
+        },
+        LONG_HASH_TABLE {
+            @Override
+            Table create() {
+                LongHashTable<Long> table = new LongHashTable<>();
+                return new Table() {
+                    @Override
+                    void add(long key, long value) {
+                        table.add(key, value);
+                    }
+
+                    @Override
+                    long get(long key) {
+                        Long value = table.getValue(key);
+                        return value == null ? 0 : value;
+                    }
+                };
+            }
+        },
+        OFF_HEAP_HASH_TABLE {
+            @Override
+            Table create() {
+                OffHeapHashTable table = new OffHeapHashTable(8, 8);
+                ByteBuffer key = ByteBuffer.allocateDirect(8);
+                ByteBuffer value = ByteBuffer.allocateDirect(8);
+                return new Table() {
+                    @Override
+                    void add(long k, long v) {
+                        table.add(key.putLong(0, k), value.putLong(0, v));
+                    }
+
+                    @Override
+                    long get(long k) {
+                        value.clear();
+                        return table.getValue(key.putLong(0, k), value) ? value.getLong(0) : 0;
+                    }
+
+                    @Override
+                    void close() {
+                        table.close();
+                    }
+                };
+            }
+        },
+        HASH_TABLE {
+            @Override
+            Table create() {
+                HashTable<Long, Long> table = new HashTable<>();
+                return new Table() {
+                    @Override
+                    void add(long key, long value) {
+                        table.add(key, value);
+                    }
+
+                    @Override
+                    long get(long key) {
+                        Long value = table.getValue(key);
+                        return value == null ? 0 : value;
+                    }
+                };
+            }
+        };
+
+        abstract Table create();
+    }
+
+    abstract static class Table {
+        abstract void add(long key, long value);
+
+        abstract long get(long key);
+
+        void close() {
+        }
+    }
+
+    @Param({"LONG_LONG_HASH_TABLE", "LONG_HASH_TABLE", "OFF_HEAP_HASH_TABLE", "HASH_TABLE"})
+    public Kind kind;
+
+    @Param({"1000", "10000", "100000", "1000000", "10000000"})
+    public int size;
+
+    private long[] keys;
+    private int[] probes;
+    private Table full;
+    private Table empty;
+    private int cursor;
+
+    @Setup(Level.Trial)
+    public void setUp() {
+        keys = new long[size];
+        for (int i = 0; i < size; i++) {
+            keys[i] = KeyDistribution.RANDOM.key(i);
+        }
+        probes = KeyDistribution.RANDOM.probes(size, MapData.PROBES, 7);
+        full = kind.create();
+        for (int i = 0; i < size; i++) {
+            full.add(keys[i], i);
+        }
+    }
+
+    @TearDown(Level.Trial)
+    public void tearDown() {
+        full.close();
+    }
+
+    @Setup(Level.Invocation)
+    public void setUpEmpty() {
+        empty = kind.create();
+    }
+
+    @TearDown(Level.Invocation)
+    public void tearDownEmpty() {
+        empty.close();
+    }
+
+    @Benchmark
+    @BenchmarkMode(Mode.AverageTime)
+    @OutputTimeUnit(TimeUnit.NANOSECONDS)
+    public long getValue() {
+        return full.get(keys[probes[cursor++ & (MapData.PROBES - 1)]]);
+    }
+
+    @Benchmark
+    @BenchmarkMode(Mode.SingleShotTime)
+    @OutputTimeUnit(TimeUnit.MILLISECONDS)
+    public Table add() {
+        for (int i = 0; i < size; i++) {
+            empty.add(keys[i], i);
+        }
+        return empty;
+    }
+}
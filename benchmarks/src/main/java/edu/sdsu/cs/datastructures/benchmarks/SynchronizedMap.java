@@ -0,0 +1,84 @@
+package edu.sdsu.cs.datastructures.benchmarks;
+
+import edu.sdsu.cs.datastructures.MapADT;
+
+import java.util.ArrayList;
+import java.util.Iterator;
+import java.util.List;
+
+/**
+ * Guards every call on a MapADT with one lock, the way a single-threaded
+ * map has to be shared today. Serves as the baseline for the concurrent
+ * implementations.
+ */
+final class SynchronizedMap<K extends Comparable<K>, V> implements MapADT<K, V> {
+
+    private final MapADT<K, V> map;
+
+    SynchronizedMap(MapADT<K, V> map) {
+        this.map = map;
+    }
+
+    @Override
+    public synchronized boolean contains(K key) {
+        return map.contains(key);
+    }
+
+    @Override
+    public synchronized V add(K key, V value) {
+        return map.add(key, value);
+    }
+
+    @Override
+    public synchronized boolean delete(K key) {
+        return map.delete(key);
+    }
+
+    @Override
+    public synchronized V getValue(K key) {
+        return map.getValue(key);
+    }
+
+    @Override
+    public synchronized K getKey(V value) {
+        return map.getKey(value);
+    }
+
+    @Override
+    public synchronized int size() {
+        return map.size();
+    }
+
+    @Override
+    public synchronized boolean isEmpty() {
+        return map.isEmpty();
+    }
+
+    @Override
+    public synchronized void clear() {
+        map.clear();
+    }
+
+    /**
+     * Copies the keys under the lock and iterates the copy, since an
+     * iterator over the map itself could not hold the lock between calls.
+     */
+    @Override
+    public synchronized Iterator<K> keys() {
+        return copy(map.keys());
+    }
+
+    /**
+     * Copies the values under the lock and iterates the copy.
+     */
+    @Override
+    public synchronized Iterator<V> values() {
+        return copy(map.values());
+    }
+
+    private <T> Iterator<T> copy(Iterator<T> items) {
+        List<T> copy = new ArrayList<>(map.size());
+        items.forEachRemaining(copy::add);
+        return copy.iterator();
+    }
+}
@@ -0,0 +1,139 @@
+package edu.sdsu.cs.datastructures;
+
+import org.junit.jupiter.api.Test;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Random;
+import java.util.TreeMap;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+/**
+ * Checks BinarySearchTree's bulk constructors and merge: the trees they
+ * build must be balanced, answer rank and select, and keep working under
+ * ordinary adds and deletes afterwards.
+ */
+class BinarySearchTreeTest {
+
+    private static void assertMatches(TreeMap<Integer, Integer> reference, BinarySearchTree<Integer, Integer> tree) {
+        MapADTTest.assertSameEntries(reference, tree, true);
+        List<Integer> keys = new ArrayList<>(reference.keySet());
+        for (int i = 0; i < keys.size(); i++) {
+            assertEquals(keys.get(i), tree.select(i), "select " + i);
+            assertEquals(i, tree.rank(keys.get(i)), "rank " + keys.get(i));
+            assertEquals(i + 1, tree.rank(keys.get(i) + 1), "rank past " + keys.get(i));
+        }
+        for (Integer key : keys) {
+            assertEquals(reference.get(key), tree.getValue(key));
+        }
+    }
+
+    private static int depth(BinarySearchTree.Entry<Integer, Integer> entry) {
+        return entry == null ? 0 : 1 + Math.max(depth(entry.leftChild), depth(entry.rightChild));
+    }
+
+    private static void assertBalanced(BinarySearchTree<Integer, Integer> tree) {
+        int limit = 32 - Integer.numberOfLeadingZeros(tree.size());
+        assertTrue(depth(tree.root) <= limit, "depth " + depth(tree.root) + " for " + tree.size() + " keys");
+    }
+
+    /**
+     * Adds and deletes a random mix after the bulk work, to show the tree
+     * the constructor or merge left behind is an ordinary one.
+     */
+    private static void churn(TreeMap<Integer, Integer> reference, BinarySearchTree<Integer, Integer> tree) {
+        Random random = new Random(11);
+        for (int i = 0; i < 5_000; i++) {
+            int key = random.nextInt(12_000);
+            if (random.nextBoolean()) {
+                assertEquals(reference.put(key, i), tree.add(key, i));
+            }
+            else {
+                assertEquals(reference.remove(key) != null, tree.delete(key));
+            }
+        }
+        assertMatches(reference, tree);
+    }
+
+    @Test
+    void arrayConstructorBuildsABalancedTree() {
+        Integer[] keys = new Integer[1_000];
+        Integer[] values = new Integer[1_000];
+        TreeMap<Integer, Integer> reference = new TreeMap<>();
+        for (int i = 0; i < keys.length; i++) {
+            keys[i] = i * 3;
+            values[i] = -i;
+            reference.put(keys[i], values[i]);
+        }
+        BinarySearchTree<Integer, Integer> tree = new BinarySearchTree<>(keys, values);
+        assertEquals(1_000, tree.size());
+        assertBalanced(tree);
+        assertMatches(reference, tree);
+        churn(reference, tree);
+
+        assertMatches(new TreeMap<>(), new BinarySearchTree<>(new Integer[0], new Integer[0]));
+        assertThrows(IllegalArgumentException.class,
+                () -> new BinarySearchTree<>(new Integer[] {1, 2}, new Integer[] {1}));
+        assertThrows(IllegalArgumentException.class,
+                () -> new BinarySearchTree<>(new Integer[] {1, 3, 2}, new Integer[] {1, 2, 3}));
+        assertThrows(IllegalArgumentException.class,
+                () -> new BinarySearchTree<>(new Integer[] {1, 1}, new Integer[] {1, 2}));
+    }
+
+    @Test
+    void iteratorConstructorTakesTheEntriesOfASortedMap() {
+        TreeMap<Integer, Integer> reference = new TreeMap<>();
+        Random random = new Random(4);
+        for (int i = 0; i < 2_000; i++) {
+            reference.put(random.nextInt(10_000), i);
+        }
+        BinarySearchTree<Integer, Integer> tree = new BinarySearchTree<>(reference.keySet().iterator(),
+                reference.values().iterator(), reference.size());
+        assertBalanced(tree);
+        assertMatches(reference, tree);
+        churn(reference, tree);
+
+        List<Integer> five = List.of(1, 2, 3, 4, 5);
+        BinarySearchTree<Integer, Integer> prefix = new BinarySearchTree<>(five.iterator(), five.iterator(), 3);
+        assertEquals(3, prefix.size());
+        assertEquals(Integer.valueOf(3), prefix.lastKey());
+        assertThrows(IllegalArgumentException.class,
+                () -> new BinarySearchTree<>(five.iterator(), five.iterator(), 6));
+        assertThrows(IllegalArgumentException.class,
+                () -> new BinarySearchTree<>(five.iterator(), five.iterator(), -1));
+    }
+
+    @Test
+    void mergeTakesTheOtherTreesValueForSharedKeys() {
+        BinarySearchTree<Integer, Integer> tree = new BinarySearchTree<>();
+        BinarySearchTree<Integer, Integer> other = new BinarySearchTree<>();
+        TreeMap<Integer, Integer> reference = new TreeMap<>();
+        TreeMap<Integer, Integer> otherReference = new TreeMap<>();
+        for (int i = 0; i < 3_000; i++) {
+            // Sorted inserts leave both trees as long as they are wide.
+            tree.add(i * 2, i);
+            reference.put(i * 2, i);
+            other.add(i * 3, -i);
+            otherReference.put(i * 3, -i);
+        }
+        reference.putAll(otherReference);
+        tree.merge(other);
+        assertEquals(reference.size(), tree.size());
+        assertBalanced(tree);
+        assertMatches(reference, tree);
+        assertEquals(Integer.valueOf(-2), tree.getValue(6));
+        assertMatches(otherReference, other);
+        churn(reference, tree);
+
+        int before = tree.size();
+        tree.merge(tree);
+        tree.merge(new BinarySearchTree<>());
+        assertEquals(before, tree.size());
+        BinarySearchTree<Integer, Integer> empty = new BinarySearchTree<>();
+        empty.merge(tree);
+        assertMatches(reference, empty);
+    }
+}
@@ -0,0 +1,128 @@
+package edu.sdsu.cs.datastructures;
+
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardCopyOption;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Random;
+import java.util.TreeMap;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+/**
+ * Checks that a DiskBPlusTree keeps its contents across close and reopen,
+ * stays correct while its cache is far smaller than the tree, and that a
+ * crash between flushes leaves the file at the last flush.
+ */
+class DiskBPlusTreeTest {
+
+    @TempDir
+    Path dir;
+
+    private static DiskBPlusTree<Integer, String> open(Path file) throws IOException {
+        return new DiskBPlusTree<>(file, MappedHashTable.Codec.INTEGER, MappedHashTable.Codec.STRING, 256, 8);
+    }
+
+    private static void churn(DiskBPlusTree<Integer, String> tree, TreeMap<Integer, String> reference,
+                              Random random, int operations) {
+        for (int i = 0; i < operations; i++) {
+            int key = random.nextInt(5_000);
+            if (random.nextInt(4) > 0) {
+                String value = "v" + i + "x".repeat(random.nextInt(20));
+                assertEquals(reference.put(key, value), tree.add(key, value), "add " + key);
+            }
+            else {
+                assertEquals(reference.remove(key) != null, tree.delete(key), "delete " + key);
+            }
+        }
+    }
+
+    private static void assertHolds(TreeMap<Integer, String> reference, DiskBPlusTree<Integer, String> tree) {
+        assertEquals(reference.size(), tree.size());
+        List<Integer> keys = new ArrayList<>();
+        tree.keys().forEachRemaining(keys::add);
+        List<String> values = new ArrayList<>();
+        tree.values().forEachRemaining(values::add);
+        assertEquals(new ArrayList<>(reference.keySet()), keys);
+        assertEquals(new ArrayList<>(reference.values()), values);
+        for (Integer key : reference.keySet()) {
+            assertEquals(reference.get(key), tree.getValue(key), "getValue " + key);
+        }
+    }
+
+    @Test
+    void reopensWithEverythingWrittenBeforeClose() throws IOException {
+        Path file = dir.resolve("tree.db");
+        TreeMap<Integer, String> reference = new TreeMap<>();
+        Random random = new Random(1);
+        for (int round = 0; round < 3; round++) {
+            DiskBPlusTree<Integer, String> tree = open(file);
+            assertHolds(reference, tree);
+            churn(tree, reference, random, 20_000);
+            assertHolds(reference, tree);
+            tree.close();
+        }
+        assertFalse(Files.exists(dir.resolve("tree.db.journal")));
+        try (DiskBPlusTree<Integer, String> tree = new DiskBPlusTree<>(file, MappedHashTable.Codec.INTEGER,
+                MappedHashTable.Codec.STRING)) {
+            assertHolds(reference, tree);
+        }
+    }
+
+    @Test
+    void evictsPagesWithoutLosingEntries() throws IOException {
+        Path file = dir.resolve("tree.db");
+        TreeMap<Integer, String> reference = new TreeMap<>();
+        try (DiskBPlusTree<Integer, String> tree = open(file)) {
+            churn(tree, reference, new Random(2), 50_000);
+            assertTrue(Files.size(dir.resolve("tree.db.journal")) > 8 * 256,
+                    "cache of 8 pages should have spilled to the journal");
+            assertHolds(reference, tree);
+        }
+    }
+
+    @Test
+    void crashBeforeFlushRecoversTheLastFlush() throws IOException {
+        Path file = dir.resolve("tree.db");
+        Path journal = dir.resolve("tree.db.journal");
+        Path copy = dir.resolve("crashed.db");
+        Path copyJournal = dir.resolve("crashed.db.journal");
+        TreeMap<Integer, String> reference = new TreeMap<>();
+        Random random = new Random(3);
+        try (DiskBPlusTree<Integer, String> tree = open(file)) {
+            churn(tree, reference, random, 10_000);
+            tree.flush();
+            TreeMap<Integer, String> flushed = new TreeMap<>(reference);
+            churn(tree, reference, random, 10_000);
+            tree.clear();
+            churn(tree, reference = new TreeMap<>(), random, 5_000);
+
+            // The files as they stand are what a crash at this moment leaves.
+            Files.copy(file, copy, StandardCopyOption.REPLACE_EXISTING);
+            Files.copy(journal, copyJournal, StandardCopyOption.REPLACE_EXISTING);
+            try (DiskBPlusTree<Integer, String> recovered = open(copy)) {
+                assertHolds(flushed, recovered);
+            }
+            assertHolds(reference, tree);
+        }
+    }
+
+    @Test
+    void refusesUseAfterCloseAndOversizedEntries() throws IOException {
+        DiskBPlusTree<Integer, String> tree = open(dir.resolve("tree.db"));
+        assertThrows(IllegalArgumentException.class, () -> tree.add(1, "x".repeat(200)));
+        tree.close();
+        assertThrows(IllegalStateException.class, () -> tree.add(1, "x"));
+        assertThrows(IllegalStateException.class, () -> tree.getValue(1));
+        assertThrows(IllegalArgumentException.class, () -> new DiskBPlusTree<>(dir.resolve("small.db"),
+                MappedHashTable.Codec.INTEGER, MappedHashTable.Codec.STRING, 128, 8));
+    }
+}
@@ -0,0 +1,137 @@
+package edu.sdsu.cs.datastructures;
+
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+import org.junit.jupiter.params.ParameterizedTest;
+import org.junit.jupiter.params.provider.Arguments;
+import org.junit.jupiter.params.provider.MethodSource;
+
+import java.nio.ByteBuffer;
+import java.nio.file.Path;
+import java.util.ConcurrentModificationException;
+import java.util.Iterator;
+import java.util.function.Consumer;
+import java.util.stream.Stream;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+/**
+ * Checks that the fail-fast maps throw ConcurrentModificationException
+ * from an iterator once the map has been changed structurally behind it,
+ * and that PersistentTree's iterators keep walking the version they began
+ * with instead.
+ */
+class IteratorInvalidationTest {
+
+    @TempDir
+    Path dir;
+
+    static Stream<Arguments> maps() {
+        return Stream.of(
+                Arguments.of("HashTable", (MapADTTest.Factory) dir -> new HashTable<>()),
+                Arguments.of("HashTable incremental", (MapADTTest.Factory) dir -> new HashTable<>(3, true, true)),
+                Arguments.of("RobinHoodHashTable", (MapADTTest.Factory) dir -> new RobinHoodHashTable<>()),
+                Arguments.of("IntHashTable", (MapADTTest.Factory) dir -> PrimitiveTables.intTable()),
+                Arguments.of("LongHashTable", (MapADTTest.Factory) dir -> PrimitiveTables.longTable()),
+                Arguments.of("LongLongHashTable", (MapADTTest.Factory) dir -> PrimitiveTables.longLongTable()),
+                Arguments.of("AdaptiveMap small", (MapADTTest.Factory) dir -> new AdaptiveMap<>(1_000)),
+                Arguments.of("AdaptiveMap large", (MapADTTest.Factory) dir -> new AdaptiveMap<>(4)),
+                Arguments.of("BinarySearchTree", (MapADTTest.Factory) dir -> new BinarySearchTree<>()),
+                Arguments.of("ArenaTree", (MapADTTest.Factory) dir -> new ArenaTree<>()),
+                Arguments.of("AVLTree", (MapADTTest.Factory) dir -> new AVLTree<>()),
+                Arguments.of("BPlusTree", (MapADTTest.Factory) dir -> new BPlusTree<>(4)),
+                Arguments.of("DiskBPlusTree", (MapADTTest.Factory) dir -> new DiskBPlusTree<>(dir.resolve("tree.db"),
+                        MappedHashTable.Codec.INTEGER, MappedHashTable.Codec.INTEGER, 256, 8)));
+    }
+
+    private static void assertInvalidatedBy(MapADT<Integer, Integer> map, Consumer<MapADT<Integer, Integer>> change) {
+        map.clear();
+        for (int i = 0; i < 100; i++) {
+            map.add(i, i);
+        }
+        Iterator<Integer> keys = map.keys();
+        Iterator<Integer> values = map.values();
+        keys.next();
+        values.next();
+        change.accept(map);
+        assertThrows(ConcurrentModificationException.class, keys::next);
+        assertThrows(ConcurrentModificationException.class, values::next);
+    }
+
+    @ParameterizedTest(name = "{0}")
+    @MethodSource("maps")
+    void structuralChangesInvalidateIterators(String name, MapADTTest.Factory factory) throws Exception {
+        MapADT<Integer, Integer> map = factory.create(dir);
+        try {
+            assertInvalidatedBy(map, m -> m.add(1_000, 0));
+            assertInvalidatedBy(map, m -> m.delete(50));
+            assertInvalidatedBy(map, MapADT::clear);
+        }
+        finally {
+            if (map instanceof AutoCloseable) {
+                ((AutoCloseable) map).close();
+            }
+        }
+    }
+
+    @Test
+    void adaptiveMapIteratorsFailWhenTheArraysMigrate() {
+        AdaptiveMap<Integer, Integer> map = new AdaptiveMap<>(4);
+        for (int i = 0; i < 4; i++) {
+            map.add(i, i);
+        }
+        Iterator<Integer> keys = map.keys();
+        Iterator<Integer> values = map.values();
+        keys.next();
+        values.next();
+        map.add(4, 4);
+        assertEquals("tree", map.representation());
+        assertTrue(keys.hasNext());
+        assertThrows(ConcurrentModificationException.class, keys::next);
+        assertThrows(ConcurrentModificationException.class, values::next);
+    }
+
+    @Test
+    void offHeapTableIteratorsFailFast() {
+        try (OffHeapHashTable table = new OffHeapHashTable(4, 4)) {
+            for (int i = 0; i < 100; i++) {
+                table.add(bytes(i), bytes(i));
+            }
+            Iterator<ByteBuffer> keys = table.keys();
+            keys.next();
+            table.add(bytes(1), bytes(-1));
+            keys.next();
+            table.delete(bytes(3));
+            assertThrows(ConcurrentModificationException.class, keys::next);
+            Iterator<ByteBuffer> values = table.values();
+            values.next();
+            table.add(bytes(1_000), bytes(0));
+            assertThrows(ConcurrentModificationException.class, values::next);
+        }
+    }
+
+    @Test
+    void persistentTreeIteratorsKeepTheirVersion() {
+        PersistentTree<Integer, Integer> tree = new PersistentTree<>();
+        for (int i = 0; i < 100; i++) {
+            tree.add(i, i);
+        }
+        Iterator<Integer> keys = tree.keys();
+        tree.clear();
+        tree.add(1_000, 0);
+        int count = 0;
+        for (int expected = 0; keys.hasNext(); expected++) {
+            assertEquals(Integer.valueOf(expected), keys.next());
+            count++;
+        }
+        assertEquals(100, count);
+    }
+
+    private static ByteBuffer bytes(int i) {
+        ByteBuffer buffer = ByteBuffer.allocate(4);
+        buffer.putInt(0, i);
+        return buffer;
+    }
+}
@@ -0,0 +1,314 @@
+package edu.sdsu.cs.datastructures;
+
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+import org.junit.jupiter.params.ParameterizedTest;
+import org.junit.jupiter.params.provider.Arguments;
+import org.junit.jupiter.params.provider.MethodSource;
+
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.Iterator;
+import java.util.List;
+import java.util.Map;
+import java.util.Random;
+import java.util.TreeMap;
+import java.util.stream.Stream;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertNull;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+/**
+ * Runs every MapADT through the same random mix of operations as a
+ * TreeMap and checks that each call answers the same way. Sorted maps must
+ * also iterate in the TreeMap's order; hash tables need only hold the same
+ * entries.
+ */
+class MapADTTest {
+
+    /**
+     * Builds a map in a scratch directory, for the maps that live in files.
+     */
+    interface Factory {
+        MapADT<Integer, Integer> create(Path dir) throws IOException;
+    }
+
+    @TempDir
+    Path dir;
+
+    private final List<MapADT<Integer, Integer>> opened = new ArrayList<>();
+
+    static Stream<Arguments> maps() {
+        return Stream.of(
+                Arguments.of("HashTable", false, (Factory) dir -> new HashTable<>()),
+                Arguments.of("HashTable prime", false, (Factory) dir -> new HashTable<>(11, false, false)),
+                Arguments.of("HashTable incremental", false, (Factory) dir -> new HashTable<>(3, true, true)),
+                Arguments.of("HashTable treeified", false, (Factory) dir -> treeified()),
+                Arguments.of("HashTable value index", false, (Factory) dir -> indexed()),
+                Arguments.of("RobinHoodHashTable", false, (Factory) dir -> new RobinHoodHashTable<>()),
+                Arguments.of("ConcurrentHashTable", false, (Factory) dir -> new ConcurrentHashTable<>(4)),
+                Arguments.of("MappedHashTable", false, (Factory) MapADTTest::mapped),
+                Arguments.of("IntHashTable", false, (Factory) dir -> PrimitiveTables.intTable()),
+                Arguments.of("LongHashTable", false, (Factory) dir -> PrimitiveTables.longTable()),
+                Arguments.of("LongLongHashTable", false, (Factory) dir -> PrimitiveTables.longLongTable()),
+                Arguments.of("AdaptiveMap", true, (Factory) dir -> new AdaptiveMap<>(16)),
+                Arguments.of("BinarySearchTree", true, (Factory) dir -> new BinarySearchTree<>()),
+                Arguments.of("ArenaTree", true, (Factory) dir -> new ArenaTree<>(4)),
+                Arguments.of("AVLTree", true, (Factory) dir -> new AVLTree<>()),
+                Arguments.of("BPlusTree", true, (Factory) dir -> new BPlusTree<>(4)),
+                Arguments.of("PersistentTree", true, (Factory) dir -> new PersistentTree<>()),
+                Arguments.of("ConcurrentSkipList", true, (Factory) dir -> new ConcurrentSkipList<>()),
+                Arguments.of("DiskBPlusTree", true, (Factory) dir -> new DiskBPlusTree<>(dir.resolve("tree.db"),
+                        MappedHashTable.Codec.INTEGER, MappedHashTable.Codec.INTEGER, 256, 8)));
+    }
+
+    private static MapADT<Integer, Integer> treeified() {
+        HashTable<Integer, Integer> table = new HashTable<>();
+        table.setTreeifyThreshold(1);
+        return table;
+    }
+
+    private static MapADT<Integer, Integer> indexed() {
+        HashTable<Integer, Integer> table = new HashTable<>();
+        table.setValueIndex(ValueIndex.Policy.FIRST_INSERTED);
+        return table;
+    }
+
+    private static MapADT<Integer, Integer> mapped(Path dir) throws IOException {
+        Path file = dir.resolve("table.snap");
+        new HashTable<Integer, Integer>().writeSnapshot(file, MappedHashTable.Codec.INTEGER,
+                MappedHashTable.Codec.INTEGER);
+        return MappedHashTable.open(file, MappedHashTable.Codec.INTEGER, MappedHashTable.Codec.INTEGER);
+    }
+
+    private MapADT<Integer, Integer> open(Factory factory) throws IOException {
+        MapADT<Integer, Integer> map = factory.create(dir);
+        opened.add(map);
+        return map;
+    }
+
+    @AfterEach
+    void close() throws Exception {
+        for (MapADT<Integer, Integer> map : opened) {
+            if (map instanceof AutoCloseable) {
+                ((AutoCloseable) map).close();
+            }
+        }
+    }
+
+    @ParameterizedTest(name = "{0}")
+    @MethodSource("maps")
+    void randomOperationsMatchTreeMap(String name, boolean sorted, Factory factory) throws IOException {
+        MapADT<Integer, Integer> map = open(factory);
+        TreeMap<Integer, Integer> reference = new TreeMap<>();
+        Random random = new Random(name.hashCode());
+        for (int i = 0; i < 20_000; i++) {
+            int key = random.nextInt(2_000);
+            int op = random.nextInt(10);
+            if (op < 5) {
+                Integer value = random.nextInt(500);
+                assertEquals(reference.put(key, value), map.add(key, value), "add " + key);
+            }
+            else if (op < 8) {
+                assertEquals(reference.remove(key) != null, map.delete(key), "delete " + key);
+            }
+            else {
+                assertEquals(reference.get(key), map.getValue(key), "getValue " + key);
+                assertEquals(reference.containsKey(key), map.contains(key), "contains " + key);
+            }
+            assertEquals(reference.size(), map.size());
+        }
+        assertSameEntries(reference, map, sorted);
+        assertGetKeyAgrees(reference, map);
+    }
+
+    @ParameterizedTest(name = "{0}")
+    @MethodSource("maps")
+    void growsAndShrinksThroughEveryResize(String name, boolean sorted, Factory factory) throws IOException {
+        MapADT<Integer, Integer> map = open(factory);
+        TreeMap<Integer, Integer> reference = new TreeMap<>();
+        for (int i = 0; i < 5_000; i++) {
+            int key = (i * 7_919) % 5_003;
+            assertNull(map.add(key, -key));
+            reference.put(key, -key);
+        }
+        assertSameEntries(reference, map, sorted);
+        for (int i = 0; i < 4_990; i++) {
+            int key = (i * 7_919) % 5_003;
+            assertTrue(map.delete(key));
+            reference.remove(key);
+        }
+        assertFalse(map.delete(-1));
+        assertSameEntries(reference, map, sorted);
+    }
+
+    @ParameterizedTest(name = "{0}")
+    @MethodSource("maps")
+    void clearEmptiesAndLeavesTheMapUsable(String name, boolean sorted, Factory factory) throws IOException {
+        MapADT<Integer, Integer> map = open(factory);
+        assertTrue(map.isEmpty());
+        for (int i = 0; i < 1_000; i++) {
+            map.add(i, i);
+        }
+        map.clear();
+        assertTrue(map.isEmpty());
+        assertEquals(0, map.size());
+        assertFalse(map.keys().hasNext());
+        assertFalse(map.values().hasNext());
+        assertNull(map.getValue(5));
+        assertNull(map.getKey(5));
+        assertNull(map.add(5, 50));
+        assertEquals(Integer.valueOf(50), map.getValue(5));
+        assertEquals(1, map.size());
+    }
+
+    @ParameterizedTest(name = "{0}")
+    @MethodSource("maps")
+    void batchOperationsMatchTreeMap(String name, boolean sorted, Factory factory) throws IOException {
+        MapADT<Integer, Integer> map = open(factory);
+        TreeMap<Integer, Integer> reference = new TreeMap<>();
+        Random random = new Random(name.hashCode() + 1);
+        for (int round = 0; round < 20; round++) {
+            // Batches of 300 keys out of 1,000 repeat some keys within a batch.
+            List<Integer> keys = new ArrayList<>();
+            List<Integer> values = new ArrayList<>();
+            for (int i = 0; i < 300; i++) {
+                keys.add(random.nextInt(1_000));
+                values.add(random.nextInt(500));
+            }
+            map.addAll(keys, values);
+            for (int i = 0; i < keys.size(); i++) {
+                reference.put(keys.get(i), values.get(i));
+            }
+            assertSameEntries(reference, map, sorted);
+
+            List<Integer> probes = new ArrayList<>();
+            for (int i = 0; i < 200; i++) {
+                probes.add(random.nextInt(1_200) - 100);
+            }
+            probes.add(probes.get(0));
+            List<Integer> found = map.getAll(probes);
+            assertEquals(probes.size(), found.size());
+            for (int i = 0; i < probes.size(); i++) {
+                assertEquals(reference.get(probes.get(i)), found.get(i), "getAll " + probes.get(i));
+            }
+
+            List<Integer> doomed = new ArrayList<>(probes.subList(0, 150));
+            doomed.add(doomed.get(1));
+            int removed = 0;
+            for (Integer key : doomed) {
+                if (reference.remove(key) != null) {
+                    removed++;
+                }
+            }
+            assertEquals(removed, map.deleteAll(doomed));
+            assertSameEntries(reference, map, sorted);
+        }
+
+        BPlusTree<Integer, Integer> other = new BPlusTree<>();
+        for (int i = 0; i < 500; i++) {
+            int key = random.nextInt(1_500);
+            other.add(key, -i);
+            reference.put(key, -i);
+        }
+        map.addAll(other);
+        assertSameEntries(reference, map, sorted);
+        assertThrows(IllegalArgumentException.class, () -> map.addAll(List.of(1, 2), List.of(1)));
+    }
+
+    /**
+     * Checks size, and that keys() and values() pair up into exactly the
+     * reference entries, in key order when the map is sorted.
+     */
+    static void assertSameEntries(TreeMap<Integer, Integer> reference, MapADT<Integer, Integer> map,
+                                  boolean sorted) {
+        assertEquals(reference.size(), map.size());
+        assertEquals(reference.isEmpty(), map.isEmpty());
+        List<Integer> keys = new ArrayList<>();
+        map.keys().forEachRemaining(keys::add);
+        List<Integer> values = new ArrayList<>();
+        map.values().forEachRemaining(values::add);
+        if (sorted) {
+            assertEquals(new ArrayList<>(reference.keySet()), keys);
+            assertEquals(new ArrayList<>(reference.values()), values);
+            return;
+        }
+        assertEquals(keys.size(), values.size());
+        Map<Integer, Integer> paired = new HashMap<>();
+        Iterator<Integer> valueWalk = values.iterator();
+        for (Integer key : keys) {
+            assertNull(paired.put(key, valueWalk.next()), "key repeated: " + key);
+        }
+        assertEquals(new HashMap<>(reference), paired);
+    }
+
+    /**
+     * getKey may return any key holding the value, so only check that it
+     * names one, or nothing when no key holds it.
+     */
+    private static void assertGetKeyAgrees(TreeMap<Integer, Integer> reference, MapADT<Integer, Integer> map) {
+        for (int value = 0; value < 500; value += 7) {
+            Integer key = map.getKey(value);
+            if (reference.containsValue(value)) {
+                assertEquals(Integer.valueOf(value), reference.get(key), "getKey " + value);
+            }
+            else {
+                assertNull(key, "getKey " + value);
+            }
+        }
+    }
+
+    @Test
+    void primitiveTablesStoreAndFindNullValues() {
+        IntHashTable<String> ints = new IntHashTable<>();
+        LongHashTable<String> longs = new LongHashTable<>();
+        for (int key : new int[] {0, 1, 2}) {
+            ints.add(key, key == 2 ? null : "v" + key);
+            longs.add(key, key == 2 ? null : "v" + key);
+        }
+        assertEquals(2, ints.getKey(null, -1));
+        assertEquals(2L, longs.getKey(null, -1));
+        assertEquals(1, ints.getKey("v1", -1));
+        assertEquals(-1L, longs.getKey("v9", -1));
+        ints.add(0, null);
+        longs.add(0, null);
+        assertEquals(0, ints.getKey(null, -1));
+        assertEquals(0L, longs.getKey(null, -1));
+        assertTrue(ints.contains(2));
+        assertTrue(longs.contains(2));
+    }
+
+    @Test
+    void mappedSnapshotAnswersLikeTheTableItCameFrom() throws IOException {
+        HashTable<Integer, Integer> table = new HashTable<>();
+        TreeMap<Integer, Integer> reference = new TreeMap<>();
+        for (int i = 0; i < 10_000; i++) {
+            table.add(i * 3, i);
+            reference.put(i * 3, i);
+        }
+        Path file = dir.resolve("full.snap");
+        table.writeSnapshot(file, MappedHashTable.Codec.INTEGER, MappedHashTable.Codec.INTEGER);
+        long written = Files.size(file);
+        MapADT<Integer, Integer> mapped = MappedHashTable.open(file, MappedHashTable.Codec.INTEGER,
+                MappedHashTable.Codec.INTEGER);
+        for (int key = -5; key < 30_005; key++) {
+            assertEquals(reference.get(key), mapped.getValue(key), "getValue " + key);
+        }
+        assertSameEntries(reference, mapped, false);
+        assertEquals(Integer.valueOf(9), mapped.add(27, -1));
+        assertTrue(mapped.delete(0));
+        assertEquals(Integer.valueOf(-1), mapped.getValue(27));
+        assertEquals(written, Files.size(file));
+        MapADT<Integer, Integer> reopened = MappedHashTable.open(file, MappedHashTable.Codec.INTEGER,
+                MappedHashTable.Codec.INTEGER);
+        assertEquals(Integer.valueOf(9), reopened.getValue(27));
+        assertEquals(Integer.valueOf(0), reopened.getValue(0));
+    }
+}
@@ -0,0 +1,113 @@
+package edu.sdsu.cs.datastructures;
+
+import org.junit.jupiter.params.ParameterizedTest;
+import org.junit.jupiter.params.provider.Arguments;
+import org.junit.jupiter.params.provider.MethodSource;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.NavigableMap;
+import java.util.Random;
+import java.util.TreeMap;
+import java.util.function.Supplier;
+import java.util.stream.Stream;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+
+/**
+ * Checks the ordered queries and range views of each NavigableMapADT
+ * against a TreeMap holding the same keys.
+ */
+class NavigableMapADTTest {
+
+    static Stream<Arguments> maps() {
+        return Stream.of(
+                Arguments.of("BinarySearchTree", (Supplier<NavigableMapADT<Integer, Integer>>) BinarySearchTree::new),
+                Arguments.of("AVLTree", (Supplier<NavigableMapADT<Integer, Integer>>) AVLTree::new));
+    }
+
+    private static TreeMap<Integer, Integer> fill(NavigableMapADT<Integer, Integer> map, long seed) {
+        TreeMap<Integer, Integer> reference = new TreeMap<>();
+        Random random = new Random(seed);
+        for (int i = 0; i < 3_000; i++) {
+            int key = random.nextInt(10_000) * 2;
+            map.add(key, i);
+            reference.put(key, i);
+        }
+        return reference;
+    }
+
+    @ParameterizedTest(name = "{0}")
+    @MethodSource("maps")
+    void ordersQueriesLikeTreeMap(String name, Supplier<NavigableMapADT<Integer, Integer>> factory) {
+        NavigableMapADT<Integer, Integer> map = factory.get();
+        assertEquals(null, map.firstKey());
+        assertEquals(null, map.floorKey(1));
+        TreeMap<Integer, Integer> reference = fill(map, 3);
+        assertEquals(reference.firstKey(), map.firstKey());
+        assertEquals(reference.lastKey(), map.lastKey());
+        for (int key = -3; key < 20_003; key += 3) {
+            assertEquals(reference.floorKey(key), map.floorKey(key), "floorKey " + key);
+            assertEquals(reference.ceilingKey(key), map.ceilingKey(key), "ceilingKey " + key);
+            assertEquals(reference.headMap(key).size(), map.rank(key), "rank " + key);
+        }
+        List<Integer> sorted = new ArrayList<>(reference.keySet());
+        for (int i = 0; i < sorted.size(); i++) {
+            assertEquals(sorted.get(i), map.select(i), "select " + i);
+        }
+        assertThrows(IndexOutOfBoundsException.class, () -> map.select(-1));
+        assertThrows(IndexOutOfBoundsException.class, () -> map.select(sorted.size()));
+    }
+
+    @ParameterizedTest(name = "{0}")
+    @MethodSource("maps")
+    void rangeViewsTrackTheMap(String name, Supplier<NavigableMapADT<Integer, Integer>> factory) {
+        NavigableMapADT<Integer, Integer> map = factory.get();
+        TreeMap<Integer, Integer> reference = fill(map, 5);
+        NavigableMapADT<Integer, Integer> view = map.subMap(5_000, 15_000);
+        NavigableMap<Integer, Integer> expected = reference.subMap(5_000, true, 15_000, false);
+        assertSameKeys(expected, view);
+        assertEquals(reference.headMap(7_001).size(), collect(map.headMap(7_001)).size());
+        assertEquals(new ArrayList<>(reference.tailMap(12_000).keySet()), collect(map.tailMap(12_000)));
+
+        view.add(5_001, -1);
+        reference.put(5_001, -1);
+        map.delete(expected.lastKey());
+        reference.remove(expected.lastKey());
+        map.add(19_999, -2);
+        reference.put(19_999, -2);
+        assertSameKeys(expected, view);
+        assertEquals(Integer.valueOf(-1), map.getValue(5_001));
+        assertEquals(null, view.getValue(19_999));
+        assertSameKeys(reference.subMap(6_000, true, 9_000, false), view.subMap(6_000, 9_000));
+        assertSameKeys(reference.subMap(5_000, true, 8_001, false), view.headMap(8_001));
+        assertSameKeys(reference.subMap(11_000, true, 15_000, false), view.tailMap(11_000));
+        assertEquals(reference.subMap(5_000, true, 9_999, false).size(), view.rank(9_999));
+        assertEquals(reference.ceilingKey(7_777), view.select(view.rank(7_777)));
+        assertThrows(IllegalArgumentException.class, () -> view.subMap(4_000, 6_000));
+        assertThrows(IllegalArgumentException.class, () -> view.add(15_000, 0));
+        assertThrows(IllegalArgumentException.class, () -> map.subMap(10, 5));
+    }
+
+    private static void assertSameKeys(NavigableMap<Integer, Integer> expected,
+                                       NavigableMapADT<Integer, Integer> view) {
+        assertEquals(expected.size(), view.size());
+        assertEquals(new ArrayList<>(expected.keySet()), collect(view));
+        assertEquals(new ArrayList<>(expected.values()), collectValues(view));
+        assertEquals(expected.firstKey(), view.firstKey());
+        assertEquals(expected.lastKey(), view.lastKey());
+    }
+
+    private static List<Integer> collect(MapADT<Integer, Integer> map) {
+        List<Integer> keys = new ArrayList<>();
+        map.keys().forEachRemaining(keys::add);
+        return keys;
+    }
+
+    private static List<Integer> collectValues(MapADT<Integer, Integer> map) {
+        List<Integer> values = new ArrayList<>();
+        map.values().forEachRemaining(values::add);
+        return values;
+    }
+}
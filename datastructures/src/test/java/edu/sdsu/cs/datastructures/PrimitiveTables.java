@@ -0,0 +1,168 @@
+package edu.sdsu.cs.datastructures;
+
+import java.util.Iterator;
+
+/**
+ * Presents the primitive-keyed tables as MapADTs over Integers, so the
+ * shared differential and iterator tests can drive them. Missing keys and
+ * values map back to null.
+ */
+final class PrimitiveTables {
+
+    private static final long MISSING = Long.MIN_VALUE;
+
+    private PrimitiveTables() {
+    }
+
+    static MapADT<Integer, Integer> intTable() {
+        IntHashTable<Integer> table = new IntHashTable<>();
+        return new Adapter() {
+            public boolean contains(Integer key) {
+                return table.contains(key);
+            }
+
+            public Integer add(Integer key, Integer value) {
+                return table.add(key, value);
+            }
+
+            public boolean delete(Integer key) {
+                return table.delete(key);
+            }
+
+            public Integer getValue(Integer key) {
+                return table.getValue(key);
+            }
+
+            public Integer getKey(Integer value) {
+                int key = table.getKey(value, Integer.MIN_VALUE);
+                return key == Integer.MIN_VALUE ? null : key;
+            }
+
+            public int size() {
+                return table.size();
+            }
+
+            public void clear() {
+                table.clear();
+            }
+
+            public Iterator<Integer> keys() {
+                return table.keys();
+            }
+
+            public Iterator<Integer> values() {
+                return table.values();
+            }
+        };
+    }
+
+    static MapADT<Integer, Integer> longTable() {
+        LongHashTable<Integer> table = new LongHashTable<>();
+        return new Adapter() {
+            public boolean contains(Integer key) {
+                return table.contains(key);
+            }
+
+            public Integer add(Integer key, Integer value) {
+                return table.add(key, value);
+            }
+
+            public boolean delete(Integer key) {
+                return table.delete(key);
+            }
+
+            public Integer getValue(Integer key) {
+                return table.getValue(key);
+            }
+
+            public Integer getKey(Integer value) {
+                long key = table.getKey(value, MISSING);
+                return key == MISSING ? null : (int) key;
+            }
+
+            public int size() {
+                return table.size();
+            }
+
+            public void clear() {
+                table.clear();
+            }
+
+            public Iterator<Integer> keys() {
+                Iterator<Long> keys = table.keys();
+                return narrowed(keys);
+            }
+
+            public Iterator<Integer> values() {
+                return table.values();
+            }
+        };
+    }
+
+    static MapADT<Integer, Integer> longLongTable() {
+        LongLongHashTable table = new LongLongHashTable(8, MISSING);
+        return new Adapter() {
+            public boolean contains(Integer key) {
+                return table.contains(key);
+            }
+
+            public Integer add(Integer key, Integer value) {
+                return boxed(table.add(key, value));
+            }
+
+            public boolean delete(Integer key) {
+                return table.delete(key);
+            }
+
+            public Integer getValue(Integer key) {
+                return boxed(table.getValue(key));
+            }
+
+            public Integer getKey(Integer value) {
+                return boxed(table.getKey(value, MISSING));
+            }
+
+            public int size() {
+                return table.size();
+            }
+
+            public void clear() {
+                table.clear();
+            }
+
+            public Iterator<Integer> keys() {
+                Iterator<Long> keys = table.keys();
+                return narrowed(keys);
+            }
+
+            public Iterator<Integer> values() {
+                Iterator<Long> values = table.values();
+                return narrowed(values);
+            }
+        };
+    }
+
+    private static Integer boxed(long value) {
+        return value == MISSING ? null : (int) value;
+    }
+
+    private static Iterator<Integer> narrowed(Iterator<Long> items) {
+        return new Iterator<Integer>() {
+            @Override
+            public boolean hasNext() {
+                return items.hasNext();
+            }
+
+            @Override
+            public Integer next() {
+                return (int) (long) items.next();
+            }
+        };
+    }
+
+    private abstract static class Adapter implements MapADT<Integer, Integer> {
+        public boolean isEmpty() {
+            return size() == 0;
+        }
+    }
+}